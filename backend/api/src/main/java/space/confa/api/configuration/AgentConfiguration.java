@@ -2,6 +2,9 @@ package space.confa.api.configuration;
 
 import io.livekit.server.AgentDispatchServiceClient;
 import io.livekit.server.RoomServiceClient;
+import io.livekit.server.WebhookReceiver;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import space.confa.api.configuration.properties.LivekitProp;
@@ -9,15 +12,34 @@ import space.confa.api.configuration.properties.LivekitProp;
 @Configuration
 public class AgentConfiguration {
 
+    /**
+     * Shared by the LiveKit clients. OkHttp's default dispatcher runs only 5 calls per host, so its limits are raised
+     * to the gateway bulkhead, which is what actually bounds concurrent LiveKit calls.
+     */
     @Bean
-    public RoomServiceClient roomClient(LivekitProp props) {
+    public OkHttpClient livekitHttpClient(LivekitProp props) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(props.gateway().maxConcurrentCalls());
+        dispatcher.setMaxRequestsPerHost(props.gateway().maxConcurrentCalls());
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .build();
+    }
+
+    @Bean
+    public RoomServiceClient roomClient(LivekitProp props, OkHttpClient livekitHttpClient) {
         return RoomServiceClient.Companion
-                .create(props.host(), props.apiKey(), props.apiSecret());
+                .createClient(props.host(), props.apiKey(), props.apiSecret(), () -> livekitHttpClient);
     }
 
     @Bean
-    public AgentDispatchServiceClient agentDispatchClient(LivekitProp props) {
+    public AgentDispatchServiceClient agentDispatchClient(LivekitProp props, OkHttpClient livekitHttpClient) {
         return AgentDispatchServiceClient.Companion
-                .createClient(props.host(), props.apiKey(), props.apiSecret());
+                .createClient(props.host(), props.apiKey(), props.apiSecret(), () -> livekitHttpClient);
+    }
+
+    @Bean
+    public WebhookReceiver webhookReceiver(LivekitProp props) {
+        return new WebhookReceiver(props.apiKey(), props.apiSecret());
     }
 }
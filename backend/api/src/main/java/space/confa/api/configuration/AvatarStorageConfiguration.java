@@ -1,12 +1,16 @@
 package space.confa.api.configuration;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import space.confa.api.configuration.properties.AvatarProp;
 
@@ -16,6 +20,28 @@ import java.net.URI;
 public class AvatarStorageConfiguration {
 
     @Bean
+    @ConditionalOnProperty(prefix = "avatar.storage", name = "client", havingValue = "async", matchIfMissing = true)
+    public S3AsyncClient avatarS3AsyncClient(AvatarProp avatarProp) {
+        AvatarProp.Storage storage = avatarProp.storage();
+        return S3AsyncClient.builder()
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(storage.maxConcurrency()))
+                .endpointOverride(URI.create(storage.endpoint()))
+                .region(Region.of(storage.region()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(storage.accessKey(), storage.secretKey())
+                ))
+                .forcePathStyle(storage.pathStyle())
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(storage.multipartThresholdBytes())
+                        .minimumPartSizeInBytes(storage.multipartPartBytes())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "avatar.storage", name = "client", havingValue = "sync")
     public S3Client avatarS3Client(AvatarProp avatarProp) {
         AvatarProp.Storage storage = avatarProp.storage();
         return S3Client.builder()
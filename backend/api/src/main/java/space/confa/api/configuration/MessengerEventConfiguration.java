@@ -0,0 +1,19 @@
+package space.confa.api.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "messenger.events", name = "bus", havingValue = "redis", matchIfMissing = true)
+public class MessengerEventConfiguration {
+
+    @Bean
+    public ReactiveRedisMessageListenerContainer messengerEventListenerContainer(
+            ReactiveRedisConnectionFactory connectionFactory
+    ) {
+        return new ReactiveRedisMessageListenerContainer(connectionFactory);
+    }
+}
@@ -43,7 +43,7 @@ public class SecurityConfiguration {
         ));
         c.addAllowedHeader("*");
         c.setAllowedMethods(List.of("GET","POST","PUT","DELETE","PATCH","OPTIONS"));
-        c.setExposedHeaders(List.of(HttpHeaders.AUTHORIZATION));
+        c.setExposedHeaders(List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.ETAG, HttpHeaders.ACCEPT_RANGES, HttpHeaders.CONTENT_RANGE));
         c.setMaxAge(1800L);
 
         var s = new UrlBasedCorsConfigurationSource();
@@ -72,6 +72,7 @@ public class SecurityConfiguration {
                       //  .pathMatchers("/rooms/**").hasRole("ADMIN")
                         .pathMatchers("/rooms/**").authenticated()
                         .pathMatchers("/livekit/token").authenticated()
+                        .pathMatchers(HttpMethod.POST, "/livekit/webhook").permitAll()
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
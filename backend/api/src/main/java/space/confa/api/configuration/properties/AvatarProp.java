@@ -2,11 +2,18 @@ package space.confa.api.configuration.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "avatar")
 public record AvatarProp(
         long maxUploadBytes,
         long presignTtlSeconds,
-        Storage storage
+        int uploadExpirationDays,
+        Duration orphanSweepInterval,
+        Storage storage,
+        PresignCache presignCache,
+        Processing processing,
+        DiskCache diskCache
 ) {
     public record Storage(
             String endpoint,
@@ -14,6 +21,28 @@ public record AvatarProp(
             String bucket,
             String accessKey,
             String secretKey,
-            boolean pathStyle
+            boolean pathStyle,
+            String client,
+            int maxConcurrency,
+            long multipartThresholdBytes,
+            long multipartPartBytes
+    ) {}
+
+    public record Processing(
+            int threads,
+            int queueCapacity,
+            int pixelBudget,
+            Duration pixelBudgetTimeout
+    ) {}
+
+    public record PresignCache(
+            long maxSize,
+            Duration safetyMargin
+    ) {}
+
+    public record DiskCache(
+            boolean enabled,
+            String directory,
+            long maxBytes
     ) {}
 }
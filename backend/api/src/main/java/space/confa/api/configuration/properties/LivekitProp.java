@@ -2,5 +2,12 @@ package space.confa.api.configuration.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 @ConfigurationProperties(prefix = "livekit")
-public record LivekitProp(String host, String apiKey, String apiSecret, String defaultRoom) { }
+public record LivekitProp(String host, String apiKey, String apiSecret, String defaultRoom, Gateway gateway, Registry registry) {
+
+    public record Gateway(Duration timeout, int maxConcurrentCalls, int failureThreshold, Duration openDuration) { }
+
+    public record Registry(Duration reconcileInterval, String mirror, int maxFailedReconciles, Duration staleAfter) { }
+}
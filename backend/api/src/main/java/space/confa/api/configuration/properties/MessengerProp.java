@@ -0,0 +1,41 @@
+package space.confa.api.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "messenger")
+public record MessengerProp(
+        Events events,
+        UnreadCounters unreadCounters,
+        TailCache tailCache,
+        ReadState readState,
+        AccessCache accessCache
+) {
+    public record Events(
+            String bus,
+            long streamMaxLength,
+            Duration streamRetention,
+            int replayLimit
+    ) {}
+
+    public record UnreadCounters(
+            String repairCron,
+            Duration repairLease
+    ) {}
+
+    public record TailCache(
+            long maxWeightBytes,
+            Duration idleTtl,
+            Duration maxAge
+    ) {}
+
+    public record ReadState(
+            Duration flushInterval
+    ) {}
+
+    public record AccessCache(
+            long maxSize,
+            Duration ttl
+    ) {}
+}
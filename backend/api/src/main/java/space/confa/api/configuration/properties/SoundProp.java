@@ -0,0 +1,36 @@
+package space.confa.api.configuration.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "sound")
+public record SoundProp(
+        Play play,
+        Ingest ingest
+) {
+    public record Play(
+            Duration timeout,
+            int burstCapacity,
+            int refillTokens,
+            Duration refillPeriod,
+            Duration stateIdleTtl
+    ) {}
+
+    public record Ingest(
+            Duration maxDuration,
+            boolean rejectUnknownDuration,
+            Transcode transcode
+    ) {}
+
+    public record Transcode(
+            boolean enabled,
+            List<String> command,
+            String contentType,
+            String extension,
+            int threads,
+            int queueCapacity,
+            Duration timeout
+    ) {}
+}
@@ -11,7 +11,9 @@ import space.confa.api.model.dto.request.CreateBootstrapDto;
 import space.confa.api.model.dto.request.CreateUserDto;
 import space.confa.api.model.dto.response.BootstrapDto;
 import space.confa.api.model.dto.response.BootstrapStatusDto;
+import space.confa.api.model.dto.response.UnreadCounterRebuildDto;
 import space.confa.api.model.dto.response.UserDto;
+import space.confa.api.service.UnreadCounterService;
 import space.confa.api.service.UserService;
 
 @Slf4j
@@ -21,6 +23,7 @@ import space.confa.api.service.UserService;
 public class AdminController {
 
     private final UserService userService;
+    private final UnreadCounterService unreadCounterService;
 
     @GetMapping(value = "/bootstrap/status", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<BootstrapStatusDto> getBootstrapStatus() {
@@ -66,4 +69,9 @@ public class AdminController {
     ) {
         return userService.deleteUser(id);
     }
+
+    @PostMapping(value = "/messenger/unread-counters/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<UnreadCounterRebuildDto> rebuildUnreadCounters() {
+        return unreadCounterService.rebuildAll();
+    }
 }
@@ -11,7 +11,6 @@ import space.confa.api.model.dto.request.MuteAgentDto;
 import space.confa.api.model.dto.response.AgentInfoDto;
 import space.confa.api.service.AgentService;
 import space.confa.api.service.RoomMetadataService;
-import space.confa.api.service.RoomService;
 
 import java.security.Principal;
 import java.util.List;
@@ -30,7 +29,7 @@ public class AgentController {
             @PathVariable String room,
             Principal principal
     ) {
-        return Mono.fromRunnable(() -> roomMetadataService.enableAgents(room, principal.getName()));
+        return roomMetadataService.enableAgents(room, principal.getName());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -39,7 +38,7 @@ public class AgentController {
             @PathVariable String room,
             Principal principal
     ) {
-        return Mono.fromRunnable(() -> roomMetadataService.disableAgents(room, principal.getName()));
+        return roomMetadataService.disableAgents(room, principal.getName());
     }
 
     @PostMapping("/invite")
@@ -48,35 +47,35 @@ public class AgentController {
             @RequestBody InviteAgentDto req,
             Principal principal
     ) {
-        return Mono.fromRunnable(() -> agentService.invite(room, req.agentRole()));
+        return agentService.invite(room, req.agentRole());
     }
 
     @PostMapping("/kick")
-    public void remove(
+    public Mono<Void> remove(
             @PathVariable String room,
             @RequestBody KickAgentDto req
     ) {
-        agentService.kick(room, req.agentIdentity());
+        return agentService.kick(room, req.agentIdentity());
     }
 
     @PostMapping("/mute")
-    public void mute(
+    public Mono<Void> mute(
             @PathVariable String room,
             @RequestBody MuteAgentDto req
     ) {
-        agentService.fullMute(room, req.agentSid(), req.isMuted());
+        return agentService.fullMute(room, req.agentSid(), req.isMuted());
     }
 
     @GetMapping
-    public List<AgentInfoDto> getAgentsByRoom(@PathVariable String room) {
+    public Mono<List<AgentInfoDto>> getAgentsByRoom(@PathVariable String room) {
         return agentService.getAgentsByRoom(room);
     }
 
     @PostMapping("/focus")
-    public void focusAgent(
+    public Mono<Void> focusAgent(
             @PathVariable String room,
             @RequestBody FocusAgentDto req
     ) {
-        agentService.focusAgent(room, req.activeAgentIdentity(), req.userIdentity());
+        return agentService.focusAgent(room, req.activeAgentIdentity(), req.userIdentity());
     }
 }
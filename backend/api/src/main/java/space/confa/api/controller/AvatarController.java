@@ -2,21 +2,26 @@ package space.confa.api.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.request.ActivateAvatarDto;
+import space.confa.api.model.dto.request.CreateUploadDto;
+import space.confa.api.model.dto.request.FinalizeAvatarUploadDto;
 import space.confa.api.model.domain.AvatarScopeType;
 import space.confa.api.model.dto.request.ResolveAvatarsBatchDto;
 import space.confa.api.model.dto.response.AvatarViewDto;
 import space.confa.api.model.dto.response.MyAvatarAssetDto;
+import space.confa.api.model.dto.response.PresignedUploadDto;
 import space.confa.api.service.AvatarService;
+import space.confa.api.service.storage.ObjectContentService;
 
 import java.util.List;
 
@@ -26,6 +31,7 @@ import java.util.List;
 public class AvatarController {
 
     private final AvatarService avatarService;
+    private final ObjectContentService objectContentService;
 
     @PutMapping(path = "/me", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public Mono<AvatarViewDto> uploadMyAvatar(
@@ -35,34 +41,49 @@ public class AvatarController {
             @RequestParam(required = false) Long workspaceId,
             @RequestParam(required = false) String roomName
     ) {
-        return readBytes(file)
-                .flatMap(bytes -> avatarService.uploadAvatar(
-                        userId(jwt),
-                        scopeType,
-                        workspaceId,
-                        roomName,
-                        bytes,
-                        file.headers().getContentType() == null
-                                ? MediaType.APPLICATION_OCTET_STREAM_VALUE
-                                : file.headers().getContentType().toString(),
-                        file.filename()
-                ));
+        return avatarService.uploadAvatar(
+                userId(jwt),
+                scopeType,
+                workspaceId,
+                roomName,
+                file.content(),
+                file.headers().getContentType() == null
+                        ? MediaType.APPLICATION_OCTET_STREAM_VALUE
+                        : file.headers().getContentType().toString()
+        );
+    }
+
+    @PostMapping("/me/uploads")
+    public Mono<PresignedUploadDto> createMyAvatarUpload(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody CreateUploadDto dto
+    ) {
+        return avatarService.createUpload(userId(jwt), dto);
+    }
+
+    @PostMapping("/me/uploads/complete")
+    public Mono<AvatarViewDto> finalizeMyAvatarUpload(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody FinalizeAvatarUploadDto dto
+    ) {
+        return avatarService.finalizeUpload(userId(jwt), dto);
     }
 
     @GetMapping("/resolve")
     public Mono<AvatarViewDto> resolveSingle(
             @RequestParam Long userId,
             @RequestParam(required = false) Long workspaceId,
-            @RequestParam(required = false) String roomName
+            @RequestParam(required = false) String roomName,
+            @RequestParam(required = false) Integer size
     ) {
-        return avatarService.resolveAvatar(userId, workspaceId, roomName);
+        return avatarService.resolveAvatar(userId, workspaceId, roomName, size);
     }
 
     @PostMapping("/resolve-batch")
     public Mono<List<AvatarViewDto>> resolveBatch(
             @Valid @RequestBody ResolveAvatarsBatchDto dto
     ) {
-        return avatarService.resolveAvatarsBatch(dto.userIds(), dto.workspaceId(), dto.roomName());
+        return avatarService.resolveAvatarsBatch(dto.userIds(), dto.workspaceId(), dto.roomName(), dto.size());
     }
 
     @GetMapping("/me/assets")
@@ -72,6 +93,14 @@ public class AvatarController {
         return avatarService.listMyAvatarAssets(userId(jwt));
     }
 
+    @DeleteMapping("/me/assets/{assetId}")
+    public Mono<Void> deleteMyAvatarAsset(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long assetId
+    ) {
+        return avatarService.deleteAvatarAsset(userId(jwt), assetId);
+    }
+
     @PostMapping("/me/activate")
     public Mono<AvatarViewDto> activateMyAvatar(
             @AuthenticationPrincipal Jwt jwt,
@@ -87,24 +116,18 @@ public class AvatarController {
     }
 
     @GetMapping("/content/{assetId}")
-    public Mono<ResponseEntity<byte[]>> getAvatarContent(
-            @PathVariable Long assetId
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvatarContent(
+            @PathVariable Long assetId,
+            @RequestParam(required = false) Integer size,
+            ServerWebExchange exchange
     ) {
-        return avatarService.getAvatarContent(assetId)
-                .map(content -> ResponseEntity.ok()
-                        .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
-                        .contentType(MediaType.parseMediaType(content.contentType()))
-                        .body(content.bytes()));
-    }
-
-    private Mono<byte[]> readBytes(FilePart filePart) {
-        return DataBufferUtils.join(filePart.content())
-                .map(buffer -> {
-                    byte[] bytes = new byte[buffer.readableByteCount()];
-                    buffer.read(bytes);
-                    DataBufferUtils.release(buffer);
-                    return bytes;
-                });
+        return avatarService.getAvatarContent(assetId, size)
+                .flatMap(content -> objectContentService.serve(
+                        exchange,
+                        content.objectKey(),
+                        content.contentType(),
+                        content.checksumSha256()
+                ));
     }
 
     private long userId(Jwt jwt) {
@@ -2,14 +2,19 @@ package space.confa.api.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.request.CreateChannelDto;
 import space.confa.api.model.dto.response.ChannelDto;
 import space.confa.api.service.ChannelService;
+import space.confa.api.service.MessengerVersionService;
+import space.confa.api.service.ReadStateService;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -17,13 +22,22 @@ import space.confa.api.service.ChannelService;
 public class ChannelController {
 
     private final ChannelService channelService;
+    private final MessengerVersionService messengerVersionService;
+    private final ReadStateService readStateService;
 
     @GetMapping("/workspaces/{workspaceId}/channels")
-    public Flux<ChannelDto> getChannels(
+    public Mono<ResponseEntity<List<ChannelDto>>> getChannels(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable Long workspaceId
+            @PathVariable Long workspaceId,
+            ServerWebExchange exchange
     ) {
-        return channelService.getChannelsForWorkspace(getUserId(jwt), workspaceId);
+        long userId = getUserId(jwt);
+        return readStateService.flushUser(userId).then(messengerVersionService.conditional(
+                exchange,
+                "channels:" + userId + ":" + workspaceId,
+                List.of(MessengerVersionService.workspaceKey(workspaceId), MessengerVersionService.userKey(userId)),
+                () -> channelService.getChannelsForWorkspace(userId, workspaceId).collectList()
+        ));
     }
 
     @PostMapping("/workspaces/{workspaceId}/channels")
@@ -3,11 +3,12 @@ package space.confa.api.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
-import reactor.core.publisher.Flux;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.request.CreateMessageDto;
 import space.confa.api.model.dto.response.ChannelDto;
@@ -16,6 +17,10 @@ import space.confa.api.model.dto.response.MessageDto;
 import space.confa.api.model.dto.response.MessagePageDto;
 import space.confa.api.service.DmService;
 import space.confa.api.service.MessageService;
+import space.confa.api.service.MessengerVersionService;
+import space.confa.api.service.ReadStateService;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -24,10 +29,23 @@ public class DmController {
 
     private final DmService dmService;
     private final MessageService messageService;
+    private final MessengerVersionService messengerVersionService;
+    private final ReadStateService readStateService;
 
     @GetMapping("/dms")
-    public Flux<DmSummaryDto> getDms(@AuthenticationPrincipal Jwt jwt) {
-        return dmService.getDmList(getUserId(jwt));
+    public Mono<ResponseEntity<List<DmSummaryDto>>> getDms(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange
+    ) {
+        long userId = getUserId(jwt);
+        return readStateService.flushUser(userId).then(messengerVersionService.conditional(
+                exchange,
+                "dms:" + userId + ":" + cursor + ":" + limit,
+                List.of(MessengerVersionService.userKey(userId)),
+                () -> dmService.getDmList(userId, cursor, limit).collectList()
+        ));
     }
 
     @PostMapping("/dm/{peerId}")
@@ -0,0 +1,50 @@
+package space.confa.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import space.confa.api.model.dto.response.MessengerEventDto;
+import space.confa.api.service.MessengerEventService;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class EventController {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(25);
+
+    private final MessengerEventService messengerEventService;
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MessengerEventDto>> events(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        Flux<ServerSentEvent<MessengerEventDto>> events = messengerEventService.streamForUser(getUserId(jwt), lastEventId)
+                .map(streamed -> ServerSentEvent.<MessengerEventDto>builder()
+                        .id(streamed.cursor())
+                        .event(streamed.event().type().name())
+                        .data(streamed.event())
+                        .build());
+
+        Flux<ServerSentEvent<MessengerEventDto>> heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<MessengerEventDto>builder()
+                        .comment("heartbeat")
+                        .build());
+
+        return Flux.merge(events, heartbeats);
+    }
+
+    private long getUserId(Jwt jwt) {
+        return Long.parseLong(jwt.getSubject());
+    }
+}
@@ -0,0 +1,27 @@
+package space.confa.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import space.confa.api.service.livekit.LivekitWebhookService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/livekit")
+public class LivekitWebhookController {
+
+    private final LivekitWebhookService livekitWebhookService;
+
+    @PostMapping(value = "/webhook", consumes = "application/webhook+json")
+    public Mono<Void> receive(
+            @RequestBody String body,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
+    ) {
+        return livekitWebhookService.receive(body, authorization);
+    }
+}
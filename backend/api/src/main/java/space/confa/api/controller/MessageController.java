@@ -2,19 +2,23 @@ package space.confa.api.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.request.CreateMessageDto;
 import space.confa.api.model.dto.request.ReadChannelDto;
 import space.confa.api.model.dto.request.ToggleReactionDto;
 import space.confa.api.model.dto.request.UpdateMessageDto;
+import space.confa.api.model.dto.response.MessageChangesDto;
 import space.confa.api.model.dto.response.MessageDto;
 import space.confa.api.model.dto.response.MessagePageDto;
 import space.confa.api.model.dto.response.MessageReactionDto;
 import space.confa.api.model.dto.response.ReadStateDto;
 import space.confa.api.service.MessageService;
+import space.confa.api.service.MessengerVersionService;
 import space.confa.api.service.ReadStateService;
 
 import java.util.List;
@@ -26,15 +30,34 @@ public class MessageController {
 
     private final MessageService messageService;
     private final ReadStateService readStateService;
+    private final MessengerVersionService messengerVersionService;
 
     @GetMapping("/channels/{channelId}/messages")
-    public Mono<MessagePageDto> getMessages(
+    public Mono<ResponseEntity<MessagePageDto>> getMessages(
             @AuthenticationPrincipal Jwt jwt,
             @PathVariable Long channelId,
             @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            ServerWebExchange exchange
+    ) {
+        long userId = getUserId(jwt);
+        return messengerVersionService.conditional(
+                exchange,
+                "messages:" + userId + ":" + channelId + ":" + cursor + ":" + limit
+                        + ":" + messageService.pageVersion(channelId, cursor, limit),
+                List.of(MessengerVersionService.channelKey(channelId)),
+                () -> messageService.getMessages(userId, channelId, cursor, limit)
+        );
+    }
+
+    @GetMapping("/channels/{channelId}/messages/changes")
+    public Mono<MessageChangesDto> getMessageChanges(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long channelId,
+            @RequestParam(required = false) Long since,
             @RequestParam(required = false) Integer limit
     ) {
-        return messageService.getMessages(getUserId(jwt), channelId, cursor, limit);
+        return messageService.getMessageChanges(getUserId(jwt), channelId, since, limit);
     }
 
     @PostMapping("/channels/{channelId}/messages")
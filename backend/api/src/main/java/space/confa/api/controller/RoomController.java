@@ -2,6 +2,7 @@ package space.confa.api.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.response.ParticipantInfoDto;
 import space.confa.api.model.dto.response.RoomMetadataDto;
 import space.confa.api.model.dto.response.RoomSummaryDto;
@@ -19,17 +20,17 @@ public class RoomController {
     private final RoomMetadataService roomMetadataService;
 
     @GetMapping
-    public List<RoomSummaryDto> getActiveRooms() {
+    public Mono<List<RoomSummaryDto>> getActiveRooms() {
         return roomService.getActiveRooms();
     }
 
     @GetMapping("/{room}/participants")
-    public List<ParticipantInfoDto> getParticipantsByRoom(@PathVariable String room) {
+    public Mono<List<ParticipantInfoDto>> getParticipantsByRoom(@PathVariable String room) {
         return roomService.getParticipantsByRoom(room);
     }
 
     @GetMapping("/{room}/config")
-    public RoomMetadataDto getRoomConfig(@PathVariable String room) {
+    public Mono<RoomMetadataDto> getRoomConfig(@PathVariable String room) {
         return roomMetadataService.getRoomMetadata(room);
     }
 }
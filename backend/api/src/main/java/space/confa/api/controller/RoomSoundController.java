@@ -7,9 +7,11 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import space.confa.api.model.dto.response.SoundClipDto;
 import space.confa.api.service.SoundService;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -24,16 +26,44 @@ public class RoomSoundController {
     @GetMapping(value = "/{roomName}/sounds", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<List<SoundClipDto>> listRoomSounds(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable String roomName
+            @PathVariable String roomName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String q
     ) {
-        return soundService.listForRoom(Long.parseLong(jwt.getSubject()), roomName).collectList();
+        return soundService.listForRoom(Long.parseLong(jwt.getSubject()), roomName, cursor, limit, q).collectList();
+    }
+
+    @GetMapping(value = "/{roomName}/sounds", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SoundClipDto> streamRoomSounds(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable String roomName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String q
+    ) {
+        return soundService.listForRoom(Long.parseLong(jwt.getSubject()), roomName, cursor, limit, q);
     }
 
     @GetMapping(value = "/{roomName}/sounds/available", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<List<SoundClipDto>> listAvailableRoomSounds(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable String roomName
+            @PathVariable String roomName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String q
+    ) {
+        return soundService.listAvailableForRoom(Long.parseLong(jwt.getSubject()), roomName, cursor, limit, q).collectList();
+    }
+
+    @GetMapping(value = "/{roomName}/sounds/available", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SoundClipDto> streamAvailableRoomSounds(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable String roomName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String q
     ) {
-        return soundService.listAvailableForRoom(Long.parseLong(jwt.getSubject()), roomName).collectList();
+        return soundService.listAvailableForRoom(Long.parseLong(jwt.getSubject()), roomName, cursor, limit, q);
     }
 }
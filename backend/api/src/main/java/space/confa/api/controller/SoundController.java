@@ -2,8 +2,7 @@ package space.confa.api.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
@@ -11,12 +10,17 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import space.confa.api.model.dto.request.CreateUploadDto;
+import space.confa.api.model.dto.request.FinalizeSoundUploadDto;
 import space.confa.api.model.dto.request.PlaySoundDto;
 import space.confa.api.model.dto.request.ShareSoundDto;
+import space.confa.api.model.dto.response.PresignedUploadDto;
 import space.confa.api.model.dto.response.SoundClipDto;
 import space.confa.api.service.SoundService;
+import space.confa.api.service.storage.ObjectContentService;
 
 @RestController
 @RequestMapping("/api/sounds")
@@ -24,6 +28,7 @@ import space.confa.api.service.SoundService;
 public class SoundController {
 
     private final SoundService soundService;
+    private final ObjectContentService objectContentService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public Mono<SoundClipDto> upload(
@@ -32,25 +37,43 @@ public class SoundController {
             @RequestParam(required = false) String name,
             @RequestParam String roomName
     ) {
-        return readBytes(file)
-                .flatMap(bytes -> soundService.upload(
-                        userId(jwt),
-                        roomName,
-                        name,
-                        bytes,
-                        file.headers().getContentType() == null
-                                ? MediaType.APPLICATION_OCTET_STREAM_VALUE
-                                : file.headers().getContentType().toString(),
-                        file.filename()
-                ));
+        return soundService.upload(
+                userId(jwt),
+                roomName,
+                name,
+                file.content(),
+                file.headers().getContentType() == null
+                        ? MediaType.APPLICATION_OCTET_STREAM_VALUE
+                        : file.headers().getContentType().toString(),
+                file.filename()
+        );
+    }
+
+    @PostMapping("/uploads")
+    public Mono<PresignedUploadDto> createUpload(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody CreateUploadDto dto
+    ) {
+        return soundService.createUpload(userId(jwt), dto);
+    }
+
+    @PostMapping("/uploads/complete")
+    public Mono<SoundClipDto> finalizeUpload(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody FinalizeSoundUploadDto dto
+    ) {
+        return soundService.finalizeUpload(userId(jwt), dto);
     }
 
-    @GetMapping("/room/{roomName}")
+    @GetMapping(value = "/room/{roomName}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     public Flux<SoundClipDto> list(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable String roomName
+            @PathVariable String roomName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String q
     ) {
-        return soundService.listForRoom(userId(jwt), roomName);
+        return soundService.listForRoom(userId(jwt), roomName, cursor, limit, q);
     }
 
     @DeleteMapping("/{soundId}")
@@ -90,22 +113,18 @@ public class SoundController {
     }
 
     @GetMapping("/content/{soundId}")
-    public Mono<ResponseEntity<byte[]>> content(@PathVariable Long soundId) {
-        return soundService.getSoundContent(soundId)
-                .map(content -> ResponseEntity.ok()
-                        .header(HttpHeaders.CACHE_CONTROL, "public, max-age=3600")
-                        .contentType(MediaType.parseMediaType(content.contentType()))
-                        .body(content.bytes()));
-    }
-
-    private Mono<byte[]> readBytes(FilePart filePart) {
-        return DataBufferUtils.join(filePart.content())
-                .map(buffer -> {
-                    byte[] bytes = new byte[buffer.readableByteCount()];
-                    buffer.read(bytes);
-                    DataBufferUtils.release(buffer);
-                    return bytes;
-                });
+    public Mono<ResponseEntity<Flux<DataBuffer>>> content(
+            @PathVariable Long soundId,
+            @RequestParam(defaultValue = "false") boolean original,
+            ServerWebExchange exchange
+    ) {
+        return soundService.getSoundContent(soundId, original)
+                .flatMap(content -> objectContentService.serve(
+                        exchange,
+                        content.objectKey(),
+                        content.contentType(),
+                        content.checksumSha256()
+                ));
     }
 
     private long userId(Jwt jwt) {
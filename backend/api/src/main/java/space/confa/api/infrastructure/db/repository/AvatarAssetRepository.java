@@ -4,6 +4,7 @@ import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import space.confa.api.model.entity.AvatarAssetEntity;
 
 @Repository
@@ -15,4 +16,17 @@ public interface AvatarAssetRepository extends R2dbcRepository<AvatarAssetEntity
             ORDER BY created_at DESC
             """)
     Flux<AvatarAssetEntity> findAllByCreatedByUserId(Long userId);
+
+    Mono<Boolean> existsByUploadKey(String uploadKey);
+
+    Mono<AvatarAssetEntity> findFirstByCreatedByUserIdAndChecksumSha256AndProcessingVersion(
+            Long createdByUserId,
+            String checksumSha256,
+            Integer processingVersion
+    );
+
+    Mono<AvatarAssetEntity> findFirstByChecksumSha256AndProcessingVersionOrderByIdAsc(
+            String checksumSha256,
+            Integer processingVersion
+    );
 }
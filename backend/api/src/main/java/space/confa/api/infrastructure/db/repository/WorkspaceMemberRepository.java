@@ -10,4 +10,5 @@ import space.confa.api.model.entity.WorkspaceMemberEntity;
 public interface WorkspaceMemberRepository extends R2dbcRepository<WorkspaceMemberEntity, Long> {
     Mono<Boolean> existsByWorkspaceIdAndUserId(Long workspaceId, Long userId);
     Flux<WorkspaceMemberEntity> findAllByUserId(Long userId);
+    Flux<WorkspaceMemberEntity> findAllByWorkspaceId(Long workspaceId);
 }
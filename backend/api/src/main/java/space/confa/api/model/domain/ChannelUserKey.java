@@ -0,0 +1,4 @@
+package space.confa.api.model.domain;
+
+public record ChannelUserKey(Long channelId, Long userId) {
+}
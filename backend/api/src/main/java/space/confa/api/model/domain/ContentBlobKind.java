@@ -0,0 +1,6 @@
+package space.confa.api.model.domain;
+
+public enum ContentBlobKind {
+    AVATAR,
+    SOUND
+}
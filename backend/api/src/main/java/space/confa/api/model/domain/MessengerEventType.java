@@ -0,0 +1,10 @@
+package space.confa.api.model.domain;
+
+public enum MessengerEventType {
+    MESSAGE_CREATED,
+    MESSAGE_UPDATED,
+    MESSAGE_DELETED,
+    REACTIONS_UPDATED,
+    READ_STATE_UPDATED,
+    CHANNEL_CREATED
+}
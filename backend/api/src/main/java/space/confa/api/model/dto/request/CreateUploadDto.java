@@ -0,0 +1,17 @@
+package space.confa.api.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public record CreateUploadDto(
+        @NotBlank
+        String contentType,
+        @NotNull
+        @Positive
+        Long sizeBytes,
+        @NotBlank
+        @Pattern(regexp = "^[0-9a-fA-F]{64}$")
+        String checksumSha256
+) {}
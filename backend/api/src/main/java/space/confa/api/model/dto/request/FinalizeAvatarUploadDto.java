@@ -0,0 +1,12 @@
+package space.confa.api.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import space.confa.api.model.domain.AvatarScopeType;
+
+public record FinalizeAvatarUploadDto(
+        @NotBlank
+        String objectKey,
+        AvatarScopeType scopeType,
+        Long workspaceId,
+        String roomName
+) {}
@@ -0,0 +1,11 @@
+package space.confa.api.model.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record FinalizeSoundUploadDto(
+        @NotBlank
+        String objectKey,
+        String name,
+        @NotBlank
+        String roomName
+) {}
@@ -8,5 +8,6 @@ public record ResolveAvatarsBatchDto(
         @NotEmpty
         List<Long> userIds,
         Long workspaceId,
-        String roomName
+        String roomName,
+        Integer size
 ) {}
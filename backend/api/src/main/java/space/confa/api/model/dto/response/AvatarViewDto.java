@@ -3,11 +3,13 @@ package space.confa.api.model.dto.response;
 import space.confa.api.model.domain.AvatarScopeType;
 
 import java.time.Instant;
+import java.util.List;
 
 public record AvatarViewDto(
         Long userId,
         Long assetId,
         AvatarScopeType scopeType,
         String contentUrl,
-        Instant updatedAt
+        Instant updatedAt,
+        List<Integer> renditionSizes
 ) {}
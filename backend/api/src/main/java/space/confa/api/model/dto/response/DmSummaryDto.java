@@ -8,5 +8,6 @@ public record DmSummaryDto(
         String peerUsername,
         String lastMessageBody,
         Instant lastMessageAt,
-        Long unreadCount
+        Long unreadCount,
+        String cursor
 ) {}
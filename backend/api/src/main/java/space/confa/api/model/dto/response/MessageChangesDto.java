@@ -0,0 +1,9 @@
+package space.confa.api.model.dto.response;
+
+import java.util.List;
+
+public record MessageChangesDto(
+        List<MessageDto> items,
+        Long watermark,
+        boolean hasMore
+) {}
@@ -19,4 +19,22 @@ public record MessageDto(
         Instant createdAt,
         Instant editedAt,
         Instant deletedAt
-) {}
+) {
+    public MessageDto withReactions(List<MessageReactionDto> reactions) {
+        return new MessageDto(
+                id,
+                channelId,
+                senderUserId,
+                senderUsername,
+                kind,
+                body,
+                replyToMessageId,
+                replyToBody,
+                replyToSenderUsername,
+                reactions,
+                createdAt,
+                editedAt,
+                deletedAt
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package space.confa.api.model.dto.response;
+
+import space.confa.api.model.domain.MessengerEventType;
+
+import java.time.Instant;
+import java.util.List;
+
+public record MessengerEventDto(
+        String id,
+        MessengerEventType type,
+        Long channelId,
+        Long messageId,
+        Long actorUserId,
+        MessageDto message,
+        List<ReactionCountDto> reactions,
+        List<String> actorReactions,
+        ReadStateDto readState,
+        Instant occurredAt
+) {
+    public MessengerEventDto withId(String id) {
+        return new MessengerEventDto(id, type, channelId, messageId, actorUserId, message, reactions, actorReactions, readState, occurredAt);
+    }
+}
@@ -0,0 +1,12 @@
+package space.confa.api.model.dto.response;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PresignedUploadDto(
+        String objectKey,
+        String url,
+        String method,
+        Map<String, String> headers,
+        Instant expiresAt
+) {}
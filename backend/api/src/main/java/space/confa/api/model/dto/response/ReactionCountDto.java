@@ -0,0 +1,6 @@
+package space.confa.api.model.dto.response;
+
+public record ReactionCountDto(
+        String emoji,
+        long count
+) {}
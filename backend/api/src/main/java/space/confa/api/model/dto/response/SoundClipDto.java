@@ -12,5 +12,6 @@ public record SoundClipDto(
         Long sizeBytes,
         Integer durationMs,
         String contentUrl,
-        Instant createdAt
+        Instant createdAt,
+        String cursor
 ) {}
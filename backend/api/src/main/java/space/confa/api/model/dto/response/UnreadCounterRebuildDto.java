@@ -0,0 +1,5 @@
+package space.confa.api.model.dto.response;
+
+public record UnreadCounterRebuildDto(
+        long channelCount
+) {}
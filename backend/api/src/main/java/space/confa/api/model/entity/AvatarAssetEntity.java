@@ -20,11 +20,14 @@ public class AvatarAssetEntity {
     private String bucket;
     private String keyOriginal;
     private String keyPng;
+    private String renditionSizes;
+    private Integer processingVersion;
     private String originalContentType;
     private Long originalSizeBytes;
     private Integer width;
     private Integer height;
     private String checksumSha256;
     private Long createdByUserId;
+    private String uploadKey;
     private Instant createdAt;
 }
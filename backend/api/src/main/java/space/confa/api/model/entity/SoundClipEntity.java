@@ -22,9 +22,14 @@ public class SoundClipEntity {
     private String name;
     private String bucket;
     private String objectKey;
+    private String playbackObjectKey;
+    private String playbackContentType;
+    private Long playbackSizeBytes;
     private String contentType;
     private Long sizeBytes;
+    private String checksumSha256;
     private Integer durationMs;
+    private String uploadKey;
     private Instant createdAt;
     private Instant updatedAt;
     private Instant deletedAt;
@@ -1,14 +1,18 @@
 package space.confa.api.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import space.confa.api.configuration.properties.AvatarProp;
 import space.confa.api.infrastructure.db.repository.AvatarAssetRepository;
 import space.confa.api.infrastructure.db.repository.AvatarBindingRepository;
@@ -17,26 +21,37 @@ import space.confa.api.infrastructure.db.repository.RoomRepository;
 import space.confa.api.infrastructure.db.repository.UserRepository;
 import space.confa.api.infrastructure.db.repository.WorkspaceMemberRepository;
 import space.confa.api.model.domain.AvatarScopeType;
+import space.confa.api.model.domain.ContentBlobKind;
+import space.confa.api.model.dto.request.CreateUploadDto;
+import space.confa.api.model.dto.request.FinalizeAvatarUploadDto;
 import space.confa.api.model.dto.response.AvatarViewDto;
 import space.confa.api.model.dto.response.MyAvatarAssetDto;
+import space.confa.api.model.dto.response.PresignedUploadDto;
 import space.confa.api.model.entity.AvatarAssetEntity;
 import space.confa.api.model.entity.AvatarBindingEntity;
 import space.confa.api.model.entity.RoomEntity;
+import space.confa.api.service.image.AvatarImageProcessor;
+import space.confa.api.service.image.AvatarImageProcessor.ProcessedAvatar;
+import space.confa.api.service.image.AvatarRenditions;
 import space.confa.api.service.storage.AvatarStorageService;
+import space.confa.api.service.storage.ObjectMetadata;
+import space.confa.api.service.storage.SpooledUpload;
+import space.confa.api.service.storage.UploadSpooler;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -47,9 +62,14 @@ public class AvatarService {
             "image/png",
             "image/jpeg"
     );
+    private static final String UPLOAD_NAMESPACE = "avatars";
 
     private final AvatarProp avatarProp;
     private final AvatarStorageService avatarStorageService;
+    private final DirectUploadService directUploadService;
+    private final UploadSpooler uploadSpooler;
+    private final AvatarImageProcessor avatarImageProcessor;
+    private final ContentBlobService contentBlobService;
     private final AvatarAssetRepository avatarAssetRepository;
     private final AvatarBindingRepository avatarBindingRepository;
     private final WorkspaceMemberRepository workspaceMemberRepository;
@@ -57,39 +77,63 @@ public class AvatarService {
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
     private final DatabaseClient databaseClient;
+    private final MeterRegistry meterRegistry;
 
     public Mono<AvatarViewDto> uploadAvatar(
             Long userId,
             AvatarScopeType scopeType,
             Long workspaceId,
             String roomName,
-            byte[] originalBytes,
-            String contentType,
-            String originalFilename
+            Flux<DataBuffer> content,
+            String contentType
     ) {
         return ensureUserExists(userId)
-                .then(validateFile(contentType, originalBytes))
+                .then(validateContentType(contentType))
                 .then(resolveScopeContext(userId, scopeType, workspaceId, roomName))
-                .flatMap(scope -> processImage(originalBytes)
-                        .flatMap(processed -> storeObjects(userId, originalBytes, processed, contentType, originalFilename)
-                                .flatMap(uploaded -> avatarAssetRepository.save(AvatarAssetEntity.builder()
-                                                .bucket(avatarProp.storage().bucket())
-                                                .keyOriginal(uploaded.keyOriginal())
-                                                .keyPng(uploaded.keyPng())
-                                                .originalContentType(contentType)
-                                                .originalSizeBytes((long) originalBytes.length)
-                                                .width(processed.width())
-                                                .height(processed.height())
-                                                .checksumSha256(sha256Hex(originalBytes))
-                                                .createdByUserId(userId)
-                                                .build())
-                                        .flatMap(asset -> activateBinding(userId, scope, asset.getId())
-                                                .flatMap(binding -> toAvatarViewDto(userId, asset, binding.getScopeType(), binding.getUpdatedAt()))
-                                        ))));
-    }
-
-    public Mono<AvatarViewDto> resolveAvatar(Long targetUserId, Long workspaceId, String roomName) {
-        return ensureUserExists(targetUserId)
+                .flatMap(scope -> uploadSpooler.spool(content, avatarProp.maxUploadBytes(), "Avatar exceeds size limit", upload ->
+                                validateNotEmpty(upload)
+                                        .then(findReusableAsset(userId, upload.checksumSha256()))
+                                        .switchIfEmpty(Mono.defer(() -> createAsset(userId, upload, contentType))))
+                        .flatMap(asset -> saveAndActivate(userId, scope, asset)));
+    }
+
+    public Mono<PresignedUploadDto> createUpload(Long userId, CreateUploadDto dto) {
+        String contentType = dto.contentType().toLowerCase(Locale.ROOT);
+        return ensureUserExists(userId)
+                .then(validateContentType(contentType))
+                .then(directUploadService.createUpload(
+                        UPLOAD_NAMESPACE,
+                        userId,
+                        dto,
+                        contentType,
+                        extensionFrom(contentType, null),
+                        "Avatar exceeds size limit"
+                ));
+    }
+
+    public Mono<AvatarViewDto> finalizeUpload(Long userId, FinalizeAvatarUploadDto dto) {
+        String uploadKey = dto.objectKey();
+        return directUploadService.validateKey(UPLOAD_NAMESPACE, userId, uploadKey)
+                .then(ensureUserExists(userId))
+                .then(avatarAssetRepository.existsByUploadKey(uploadKey))
+                .flatMap(exists -> exists
+                        ? Mono.<ScopeContext>error(new ResponseStatusException(HttpStatus.CONFLICT, "Upload already finalized"))
+                        : resolveScopeContext(userId, dto.scopeType(), dto.workspaceId(), dto.roomName()))
+                .flatMap(scope -> directUploadService.finalizeUpload(uploadKey, metadata -> validateUploadedObject(metadata)
+                                .then(findReusableAsset(userId, metadata.checksumSha256()))
+                                .switchIfEmpty(Mono.defer(() -> directUploadService.spool(
+                                        uploadKey,
+                                        metadata,
+                                        "Avatar exceeds size limit",
+                                        upload -> createAsset(userId, upload, metadata.contentType())))))
+                        .map(asset -> asset.getId() == null ? asset.toBuilder().uploadKey(uploadKey).build() : asset)
+                        .flatMap(asset -> saveAndActivate(userId, scope, asset)
+                                .onErrorResume(DuplicateKeyException.class, error -> releaseBlob(asset)
+                                        .then(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Upload already finalized", error))))));
+    }
+
+    public Mono<AvatarViewDto> resolveAvatar(Long targetUserId, Long workspaceId, String roomName, Integer size) {
+        return timed("single", 1, ensureUserExists(targetUserId)
                 .then(resolveRoomId(roomName)
                         .flatMap(roomId -> resolveBinding(targetUserId, workspaceId, roomId))
                         .switchIfEmpty(resolveBinding(targetUserId, workspaceId, null)))
@@ -98,20 +142,30 @@ public class AvatarService {
                                 targetUserId,
                                 asset,
                                 binding.getScopeType(),
-                                binding.getUpdatedAt()
+                                binding.getUpdatedAt(),
+                                size
                         ))
-                        .switchIfEmpty(Mono.just(new AvatarViewDto(targetUserId, null, null, null, null))))
-                .defaultIfEmpty(new AvatarViewDto(targetUserId, null, null, null, null));
+                        .switchIfEmpty(Mono.just(emptyView(targetUserId))))
+                .defaultIfEmpty(emptyView(targetUserId)));
     }
 
-    public Mono<List<AvatarViewDto>> resolveAvatarsBatch(List<Long> userIds, Long workspaceId, String roomName) {
+    public Mono<List<AvatarViewDto>> resolveAvatarsBatch(List<Long> userIds, Long workspaceId, String roomName, Integer size) {
         if (userIds == null || userIds.isEmpty()) {
             return Mono.just(List.of());
         }
-        Set<Long> unique = new LinkedHashSet<>(userIds);
-        return Flux.fromIterable(unique)
-                .flatMapSequential(userId -> resolveAvatar(userId, workspaceId, roomName))
-                .collectList();
+        List<Long> unique = List.copyOf(new LinkedHashSet<>(userIds));
+        return timed("batch", unique.size(), resolveRoomId(roomName)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(roomId -> findResolvedBindings(unique, workspaceId, roomId.orElse(null)))
+                .flatMap(rows -> {
+                    if (rows.size() < unique.size()) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+                    }
+                    return presignAll(rows.values(), size).map(urls -> unique.stream()
+                            .map(userId -> toAvatarViewDto(rows.get(userId), urls, size))
+                            .toList());
+                }));
     }
 
     public Mono<List<MyAvatarAssetDto>> listMyAvatarAssets(Long userId) {
@@ -145,22 +199,46 @@ public class AvatarService {
                                             userId,
                                             asset,
                                             binding.getScopeType(),
-                                            binding.getUpdatedAt()
+                                            binding.getUpdatedAt(),
+                                            null
                                     )));
                 });
     }
 
-    public Mono<AvatarContent> getAvatarContent(Long assetId) {
+    public Mono<Void> deleteAvatarAsset(Long userId, Long assetId) {
+        return ensureUserExists(userId)
+                .then(avatarAssetRepository.findById(assetId)
+                        .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Avatar not found"))))
+                .flatMap(asset -> {
+                    if (!userId.equals(asset.getCreatedByUserId())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your avatar"));
+                    }
+                    return databaseClient.sql("""
+                                    DELETE FROM avatar_binding
+                                    WHERE asset_id = :assetId
+                                    """)
+                            .bind("assetId", assetId)
+                            .fetch()
+                            .rowsUpdated()
+                            .then(avatarAssetRepository.delete(asset))
+                            .then(releaseBlob(asset));
+                });
+    }
+
+    public Mono<AvatarContent> getAvatarContent(Long assetId, Integer size) {
         return avatarAssetRepository.findById(assetId)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Avatar not found")))
-                .flatMap(asset -> Mono.fromCallable(() -> new AvatarContent(
-                                avatarStorageService.getObject(asset.getKeyPng()),
-                                "image/png"))
-                        .subscribeOn(Schedulers.boundedElastic())
-                        .onErrorMap(error -> {
-                            log.warn("Failed to load avatar content assetId={}", assetId, error);
-                            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Avatar content not found");
-                        }));
+                .map(asset -> {
+                    Integer rendition = AvatarRenditions.bestFit(AvatarRenditions.parse(asset.getRenditionSizes()), size);
+                    if (rendition == null) {
+                        return new AvatarContent(asset.getKeyPng(), "image/png", asset.getChecksumSha256());
+                    }
+                    return new AvatarContent(
+                            AvatarRenditions.key(asset.getKeyPng(), rendition),
+                            "image/png",
+                            asset.getChecksumSha256() + "-" + rendition
+                    );
+                });
     }
 
     private Mono<Void> ensureUserExists(Long userId) {
@@ -170,15 +248,111 @@ public class AvatarService {
                         : Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
     }
 
-    private Mono<Void> validateFile(String contentType, byte[] bytes) {
+    private Mono<Void> validateContentType(String contentType) {
         if (contentType == null || contentType.isBlank() || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase(Locale.ROOT))) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported content type"));
         }
-        if (bytes == null || bytes.length == 0) {
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty"));
+        return Mono.empty();
+    }
+
+    private Mono<Void> validateUploadedObject(ObjectMetadata metadata) {
+        return validateContentType(metadata.contentType())
+                .then(Mono.defer(() -> {
+                    if (metadata.contentLength() <= 0) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty"));
+                    }
+                    if (metadata.contentLength() > avatarProp.maxUploadBytes()) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Avatar exceeds size limit"));
+                    }
+                    if (metadata.checksumSha256() == null) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload checksum is missing"));
+                    }
+                    return Mono.<Void>empty();
+                }));
+    }
+
+    private Mono<AvatarAssetEntity> findReusableAsset(Long userId, String checksumSha256) {
+        return avatarAssetRepository.findFirstByCreatedByUserIdAndChecksumSha256AndProcessingVersion(
+                        userId,
+                        checksumSha256,
+                        AvatarImageProcessor.PROCESSING_VERSION
+                )
+                .switchIfEmpty(avatarAssetRepository.findFirstByChecksumSha256AndProcessingVersionOrderByIdAsc(
+                                checksumSha256,
+                                AvatarImageProcessor.PROCESSING_VERSION
+                        )
+                        .flatMap(shared -> contentBlobService.retain(
+                                        ContentBlobKind.AVATAR,
+                                        checksumSha256,
+                                        AvatarImageProcessor.PROCESSING_VERSION
+                                )
+                                .map(ignored -> shared.toBuilder()
+                                        .id(null)
+                                        .createdByUserId(userId)
+                                        .uploadKey(null)
+                                        .createdAt(null)
+                                        .build())));
+    }
+
+    private Mono<AvatarAssetEntity> createAsset(Long userId, SpooledUpload upload, String contentType) {
+        StoredKeys proposed = StoredKeys.forBase("avatars/blobs/" + upload.checksumSha256() + "-" + UUID.randomUUID());
+        return avatarImageProcessor.process(upload.file())
+                .flatMap(processed -> contentBlobService.acquireOrStore(
+                                ContentBlobKind.AVATAR,
+                                upload.checksumSha256(),
+                                AvatarImageProcessor.PROCESSING_VERSION,
+                                proposed.keyPng(),
+                                storeObjects(proposed, upload, processed, contentType).thenReturn(proposed),
+                                objectKeys(proposed, processed.renditions().keySet())
+                        )
+                        .map(keyPng -> AvatarAssetEntity.builder()
+                                .bucket(avatarProp.storage().bucket())
+                                .keyOriginal(StoredKeys.forPng(keyPng).keyOriginal())
+                                .keyPng(keyPng)
+                                .renditionSizes(AvatarRenditions.format(processed.renditions().keySet()))
+                                .processingVersion(AvatarImageProcessor.PROCESSING_VERSION)
+                                .originalContentType(contentType)
+                                .originalSizeBytes(upload.sizeBytes())
+                                .width(processed.width())
+                                .height(processed.height())
+                                .checksumSha256(upload.checksumSha256())
+                                .createdByUserId(userId)
+                                .build()));
+    }
+
+    private Mono<Void> releaseBlob(AvatarAssetEntity asset) {
+        if (asset.getChecksumSha256() == null || asset.getProcessingVersion() == null) {
+            return Mono.empty();
         }
-        if (bytes.length > avatarProp.maxUploadBytes()) {
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Avatar exceeds size limit"));
+        return contentBlobService.releaseAndDelete(
+                        ContentBlobKind.AVATAR,
+                        asset.getChecksumSha256(),
+                        asset.getProcessingVersion(),
+                        objectKeys(new StoredKeys(asset.getKeyOriginal(), asset.getKeyPng()), AvatarRenditions.parse(asset.getRenditionSizes()))
+                )
+                .onErrorResume(error -> {
+                    log.warn("Failed to release avatar blob {}", asset.getKeyPng(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private List<String> objectKeys(StoredKeys keys, Collection<Integer> renditionSizes) {
+        List<String> objectKeys = new ArrayList<>();
+        renditionSizes.forEach(size -> objectKeys.add(AvatarRenditions.key(keys.keyPng(), size)));
+        objectKeys.add(keys.keyPng());
+        objectKeys.add(keys.keyOriginal());
+        return objectKeys;
+    }
+
+    private Mono<AvatarViewDto> saveAndActivate(Long userId, ScopeContext scope, AvatarAssetEntity asset) {
+        return (asset.getId() == null ? avatarAssetRepository.save(asset) : Mono.just(asset))
+                .flatMap(saved -> activateBinding(userId, scope, saved.getId())
+                        .flatMap(binding -> toAvatarViewDto(userId, saved, binding.getScopeType(), binding.getUpdatedAt(), null)));
+    }
+
+    private Mono<Void> validateNotEmpty(SpooledUpload upload) {
+        if (upload.sizeBytes() == 0) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty"));
         }
         return Mono.empty();
     }
@@ -218,52 +392,19 @@ public class AvatarService {
                 .switchIfEmpty(Mono.justOrEmpty((Long) null));
     }
 
-    private Mono<ProcessedImage> processImage(byte[] originalBytes) {
-        return Mono.fromCallable(() -> {
-                    BufferedImage image = ImageIO.read(new ByteArrayInputStream(originalBytes));
-                    if (image == null) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to decode image");
-                    }
-                    int width = image.getWidth();
-                    int height = image.getHeight();
-                    if (width <= 0 || height <= 0) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid image dimensions");
-                    }
-                    if (width > 4096 || height > 4096) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image dimensions are too large");
-                    }
-
-                    ByteArrayOutputStream pngOut = new ByteArrayOutputStream();
-                    boolean encoded = ImageIO.write(image, "png", pngOut);
-                    if (!encoded) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to encode PNG");
-                    }
-                    return new ProcessedImage(width, height, pngOut.toByteArray());
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+    private Mono<Void> storeObjects(StoredKeys keys, SpooledUpload upload, ProcessedAvatar processed, String contentType) {
+        return Mono.when(
+                avatarStorageService.putObject(keys.keyOriginal(), upload.file(), contentType),
+                storeDerived(keys.keyPng(), processed));
     }
 
-    private Mono<StoredKeys> storeObjects(
-            Long userId,
-            byte[] originalBytes,
-            ProcessedImage processed,
-            String contentType,
-            String filename
-    ) {
-        return Mono.fromCallable(() -> {
-                    String token = UUID.randomUUID().toString();
-                    String extension = extensionFrom(contentType, filename);
-                    String keyBase = "avatars/users/" + userId + "/" + token;
-                    String keyOriginal = keyBase + "-orig." + extension;
-                    String keyPng = keyBase + ".png";
-                    return new StoredKeys(keyOriginal, keyPng);
-                })
-                .flatMap(keys -> Mono.fromRunnable(() -> {
-                            avatarStorageService.putObject(keys.keyOriginal(), originalBytes, contentType);
-                            avatarStorageService.putObject(keys.keyPng(), processed.pngBytes(), "image/png");
-                        })
-                        .subscribeOn(Schedulers.boundedElastic())
-                        .thenReturn(keys));
+    private Mono<Void> storeDerived(String keyPng, ProcessedAvatar processed) {
+        return Flux.fromIterable(processed.renditions().entrySet())
+                .flatMap(rendition -> avatarStorageService.putObject(
+                        AvatarRenditions.key(keyPng, rendition.getKey()),
+                        rendition.getValue(),
+                        "image/png"))
+                .then(avatarStorageService.putObject(keyPng, processed.pngBytes(), "image/png"));
     }
 
     private Mono<AvatarBindingEntity> activateBinding(Long userId, ScopeContext scope, Long assetId) {
@@ -373,22 +514,148 @@ public class AvatarService {
         return room.switchIfEmpty(workspace).switchIfEmpty(global);
     }
 
+    private Mono<Map<Long, ResolvedBinding>> findResolvedBindings(List<Long> userIds, Long workspaceId, Long roomId) {
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        String sql = """
+                SELECT u.id AS user_id,
+                       rb.asset_id,
+                       rb.scope_type,
+                       rb.updated_at,
+                       rb.key_png,
+                       rb.rendition_sizes
+                FROM user u
+                LEFT JOIN (
+                    SELECT ab.user_id,
+                           ab.asset_id,
+                           ab.scope_type,
+                           ab.updated_at,
+                           aa.key_png,
+                           aa.rendition_sizes,
+                           ROW_NUMBER() OVER (
+                               PARTITION BY ab.user_id
+                               ORDER BY CASE ab.scope_type
+                                            WHEN 'ROOM' THEN 0
+                                            WHEN 'WORKSPACE' THEN 1
+                                            ELSE 2
+                                        END,
+                                        ab.updated_at DESC,
+                                        ab.id DESC
+                           ) AS rn
+                    FROM avatar_binding ab
+                    JOIN avatar_asset aa ON aa.id = ab.asset_id
+                    WHERE ab.user_id IN (%1$s)
+                      AND ab.is_active = 1
+                      AND (
+                          ab.scope_type = 'GLOBAL'
+                          OR (ab.scope_type = 'WORKSPACE' AND ab.workspace_id = ?)
+                          OR (ab.scope_type = 'ROOM' AND ab.room_id = ?)
+                      )
+                ) rb ON rb.user_id = u.id AND rb.rn = 1
+                WHERE u.id IN (%1$s)
+                """.formatted(placeholders);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        int index = 0;
+        for (Long userId : userIds) {
+            spec = spec.bind(index++, userId);
+        }
+        spec = workspaceId == null ? spec.bindNull(index++, Long.class) : spec.bind(index++, workspaceId);
+        spec = roomId == null ? spec.bindNull(index++, Long.class) : spec.bind(index++, roomId);
+        for (Long userId : userIds) {
+            spec = spec.bind(index++, userId);
+        }
+
+        return spec.map((row, metadata) -> {
+                    String scopeType = row.get("scope_type", String.class);
+                    return new ResolvedBinding(
+                            row.get("user_id", Long.class),
+                            row.get("asset_id", Long.class),
+                            scopeType == null ? null : AvatarScopeType.valueOf(scopeType),
+                            row.get("updated_at", Instant.class),
+                            row.get("key_png", String.class),
+                            AvatarRenditions.parse(row.get("rendition_sizes", String.class))
+                    );
+                })
+                .all()
+                .collectMap(ResolvedBinding::userId);
+    }
+
+    private Mono<Map<String, String>> presignAll(Collection<ResolvedBinding> bindings, Integer size) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (ResolvedBinding binding : bindings) {
+            if (binding.keyPng() != null) {
+                keys.add(AvatarRenditions.keyFor(binding.keyPng(), binding.renditionSizes(), size));
+            }
+        }
+        if (keys.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        Duration ttl = Duration.ofSeconds(Math.max(60, avatarProp.presignTtlSeconds()));
+        return Mono.fromCallable(() -> {
+                    Map<String, String> urls = new HashMap<>(keys.size() * 2);
+                    for (String key : keys) {
+                        try {
+                            urls.put(key, avatarStorageService.generatePresignedGetUrl(key, ttl));
+                        } catch (Exception e) {
+                            log.warn("Failed to generate presigned avatar URL key={}", key, e);
+                        }
+                    }
+                    return urls;
+                });
+    }
+
+    private AvatarViewDto toAvatarViewDto(ResolvedBinding binding, Map<String, String> urls, Integer size) {
+        if (binding.assetId() == null) {
+            return emptyView(binding.userId());
+        }
+        Instant updatedAt = binding.updatedAt() == null ? Instant.now() : binding.updatedAt();
+        return new AvatarViewDto(
+                binding.userId(),
+                binding.assetId(),
+                binding.scopeType(),
+                urls.get(AvatarRenditions.keyFor(binding.keyPng(), binding.renditionSizes(), size)),
+                updatedAt,
+                binding.renditionSizes()
+        );
+    }
+
+    private AvatarViewDto emptyView(Long userId) {
+        return new AvatarViewDto(userId, null, null, null, null, List.of());
+    }
+
+    private <T> Mono<T> timed(String mode, int userCount, Mono<T> resolution) {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return resolution.doOnSuccess(ignored -> {
+                Timer.builder("avatar.resolve")
+                        .tag("mode", mode)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                DistributionSummary.builder("avatar.resolve.users")
+                        .tag("mode", mode)
+                        .register(meterRegistry)
+                        .record(userCount);
+            });
+        });
+    }
+
     private Mono<AvatarViewDto> toAvatarViewDto(
             Long userId,
             AvatarAssetEntity asset,
             AvatarScopeType scopeType,
-            Instant updatedAt
+            Instant updatedAt,
+            Integer size
     ) {
         Instant safeUpdatedAt = updatedAt == null ? Instant.now() : updatedAt;
+        List<Integer> renditionSizes = AvatarRenditions.parse(asset.getRenditionSizes());
         return Mono.fromCallable(() -> avatarStorageService.generatePresignedGetUrl(
-                        asset.getKeyPng(),
+                        AvatarRenditions.keyFor(asset.getKeyPng(), renditionSizes, size),
                         Duration.ofSeconds(Math.max(60, avatarProp.presignTtlSeconds()))
                 ))
-                .subscribeOn(Schedulers.boundedElastic())
-                .map(url -> new AvatarViewDto(userId, asset.getId(), scopeType, url, safeUpdatedAt))
+                .map(url -> new AvatarViewDto(userId, asset.getId(), scopeType, url, safeUpdatedAt, renditionSizes))
                 .onErrorResume(error -> {
                     log.warn("Failed to generate presigned avatar URL assetId={}", asset.getId(), error);
-                    return Mono.just(new AvatarViewDto(userId, asset.getId(), scopeType, null, safeUpdatedAt));
+                    return Mono.just(new AvatarViewDto(userId, asset.getId(), scopeType, null, safeUpdatedAt, renditionSizes));
                 });
     }
 
@@ -397,7 +664,6 @@ public class AvatarService {
                         asset.getKeyPng(),
                         Duration.ofSeconds(Math.max(60, avatarProp.presignTtlSeconds()))
                 ))
-                .subscribeOn(Schedulers.boundedElastic())
                 .map(url -> new MyAvatarAssetDto(
                         asset.getId(),
                         url,
@@ -439,24 +705,29 @@ public class AvatarService {
         return "bin";
     }
 
-    private String sha256Hex(byte[] bytes) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(bytes);
-            StringBuilder sb = new StringBuilder(hash.length * 2);
-            for (byte b : hash) {
-                sb.append(String.format(Locale.ROOT, "%02x", b));
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            // SHA-256 is always available in JVM, fallback is here for safety.
-            return new String(bytes, StandardCharsets.ISO_8859_1).hashCode() + "";
+    public record AvatarContent(String objectKey, String contentType, String checksumSha256) {}
+
+    private record StoredKeys(String keyOriginal, String keyPng) {
+        private static final String PNG_SUFFIX = "-v" + AvatarImageProcessor.PROCESSING_VERSION + ".png";
+
+        private static StoredKeys forBase(String base) {
+            return new StoredKeys(base + "-orig", base + PNG_SUFFIX);
         }
-    }
 
-    public record AvatarContent(byte[] bytes, String contentType) {}
+        private static StoredKeys forPng(String keyPng) {
+            return keyPng.endsWith(PNG_SUFFIX)
+                    ? forBase(keyPng.substring(0, keyPng.length() - PNG_SUFFIX.length()))
+                    : new StoredKeys(keyPng, keyPng);
+        }
+    }
 
-    private record ProcessedImage(int width, int height, byte[] pngBytes) {}
-    private record StoredKeys(String keyOriginal, String keyPng) {}
     private record ScopeContext(AvatarScopeType scopeType, Long workspaceId, Long roomId) {}
+    private record ResolvedBinding(
+            Long userId,
+            Long assetId,
+            AvatarScopeType scopeType,
+            Instant updatedAt,
+            String keyPng,
+            List<Integer> renditionSizes
+    ) {}
 }
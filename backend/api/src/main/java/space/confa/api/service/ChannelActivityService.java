@@ -0,0 +1,106 @@
+package space.confa.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class ChannelActivityService {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> messageCreated(Long messageId) {
+        return databaseClient.sql("""
+                        UPDATE channel c
+                        JOIN message m ON m.channel_id = c.id
+                        SET c.last_message_id = m.id,
+                            c.last_message_at = m.created_at,
+                            c.last_message_preview = LEFT(m.body, 255),
+                            c.updated_at = c.updated_at
+                        WHERE m.id = :messageId
+                          AND (c.last_message_id IS NULL OR c.last_message_id < m.id)
+                        """)
+                .bind("messageId", messageId)
+                .then()
+                .then(databaseClient.sql("""
+                                UPDATE channel_member cm
+                                JOIN message m ON m.channel_id = cm.channel_id
+                                SET cm.last_activity_at = m.created_at
+                                WHERE m.id = :messageId
+                                  AND cm.last_activity_at < m.created_at
+                                """)
+                        .bind("messageId", messageId)
+                        .then());
+    }
+
+    public Mono<Void> bumpChangeVersion(Long channelId, Long messageId) {
+        return databaseClient.sql("""
+                        UPDATE channel
+                        SET change_version = change_version + 1,
+                            updated_at = updated_at
+                        WHERE id = :channelId
+                        """)
+                .bind("channelId", channelId)
+                .then()
+                .then(databaseClient.sql("""
+                                UPDATE message m
+                                JOIN channel c ON c.id = m.channel_id
+                                SET m.change_version = c.change_version
+                                WHERE m.id = :messageId
+                                  AND c.id = :channelId
+                                """)
+                        .bind("messageId", messageId)
+                        .bind("channelId", channelId)
+                        .then());
+    }
+
+    public Mono<Long> currentChangeVersion(Long channelId) {
+        return databaseClient.sql("""
+                        SELECT change_version
+                        FROM channel
+                        WHERE id = :channelId
+                        """)
+                .bind("channelId", channelId)
+                .map((row, metadata) -> row.get("change_version", Long.class))
+                .one()
+                .defaultIfEmpty(0L);
+    }
+
+    public Mono<Void> messageUpdated(Long channelId, Long messageId) {
+        return databaseClient.sql("""
+                        UPDATE channel c
+                        JOIN message m ON m.id = c.last_message_id
+                        SET c.last_message_preview = LEFT(m.body, 255)
+                        WHERE c.id = :channelId
+                          AND c.last_message_id = :messageId
+                        """)
+                .bind("channelId", channelId)
+                .bind("messageId", messageId)
+                .then();
+    }
+
+    public Mono<Void> messageDeleted(Long channelId, Long messageId) {
+        return databaseClient.sql("""
+                        UPDATE channel c
+                        LEFT JOIN message m ON m.id = (
+                            SELECT id
+                            FROM message
+                            WHERE channel_id = :channelId
+                              AND deleted_at IS NULL
+                            ORDER BY id DESC
+                            LIMIT 1
+                        )
+                        SET c.last_message_id = m.id,
+                            c.last_message_at = m.created_at,
+                            c.last_message_preview = LEFT(m.body, 255),
+                            c.updated_at = c.updated_at
+                        WHERE c.id = :channelId
+                          AND c.last_message_id = :messageId
+                        """)
+                .bind("channelId", channelId)
+                .bind("messageId", messageId)
+                .then();
+    }
+}
@@ -9,18 +9,24 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import space.confa.api.infrastructure.db.repository.ChannelRepository;
+import space.confa.api.infrastructure.db.repository.WorkspaceMemberRepository;
 import space.confa.api.model.domain.ChannelType;
 import space.confa.api.model.dto.request.CreateChannelDto;
 import space.confa.api.model.dto.response.ChannelDto;
 import space.confa.api.model.entity.ChannelEntity;
+import space.confa.api.model.entity.WorkspaceMemberEntity;
 import space.confa.api.shared.mapper.MessengerMapper;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ChannelService {
 
     private final ChannelRepository channelRepository;
+    private final WorkspaceMemberRepository workspaceMemberRepository;
     private final MessengerAccessService messengerAccessService;
+    private final MessengerEventService messengerEventService;
     private final DatabaseClient databaseClient;
 
     public Flux<ChannelDto> getChannelsForWorkspace(Long userId, Long workspaceId) {
@@ -35,22 +41,11 @@ public class ChannelService {
                                c.position,
                                c.created_by_user_id,
                                c.created_at,
-                               COALESCE((
-                                   SELECT COUNT(*)
-                                   FROM message m
-                                   WHERE m.channel_id = c.id
-                                     AND m.deleted_at IS NULL
-                                     AND m.sender_user_id IS NOT NULL
-                                     AND m.sender_user_id <> :userId
-                                     AND (
-                                         crs.last_read_message_id IS NULL
-                                         OR m.id > crs.last_read_message_id
-                                     )
-                               ), 0) AS unread_count
+                               COALESCE(cuc.unread_count, 0) AS unread_count
                         FROM channel c
-                        LEFT JOIN channel_read_state crs
-                               ON crs.channel_id = c.id
-                              AND crs.user_id = :userId
+                        LEFT JOIN channel_unread_counter cuc
+                               ON cuc.channel_id = c.id
+                              AND cuc.user_id = :userId
                         WHERE c.workspace_id = :workspaceId
                         ORDER BY c.position ASC, c.id ASC
                         """)
@@ -91,6 +86,7 @@ public class ChannelService {
                         .position(position)
                         .createdByUserId(userId)
                         .build()))
+                .flatMap(channel -> notifyChannelCreated(userId, channel).thenReturn(channel))
                 .map(MessengerMapper::toChannelDto);
     }
 
@@ -98,4 +94,14 @@ public class ChannelService {
         return messengerAccessService.getChannelForAccess(userId, channelId)
                 .map(MessengerMapper::toChannelDto);
     }
+
+    private Mono<Void> notifyChannelCreated(Long userId, ChannelEntity channel) {
+        if (Boolean.TRUE.equals(channel.getIsPrivate())) {
+            return messengerEventService.channelCreated(channel.getId(), userId, List.of(userId));
+        }
+        return workspaceMemberRepository.findAllByWorkspaceId(channel.getWorkspaceId())
+                .map(WorkspaceMemberEntity::getUserId)
+                .collectList()
+                .flatMap(memberIds -> messengerEventService.channelCreated(channel.getId(), userId, memberIds));
+    }
 }
@@ -0,0 +1,325 @@
+package space.confa.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import space.confa.api.model.domain.ContentBlobKind;
+import space.confa.api.service.storage.AvatarStorageService;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentBlobService {
+
+    private static final int ORPHAN_SWEEP_BATCH = 100;
+    private static final int PENDING_MAX_POLLS = 240;
+    private static final Duration PENDING_POLL_INTERVAL = Duration.ofMillis(250);
+    private static final Duration PENDING_ABANDON_AFTER = Duration.ofHours(1);
+
+    private final DatabaseClient databaseClient;
+    private final AvatarStorageService avatarStorageService;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Takes a reference on the blob and runs {@code store} only when this call registered it under {@code objectKey}.
+     * The row stays pending until {@code store} emits, and callers that join a pending row wait for it to become
+     * ready. Completing empty or failing drops the row with every reference taken on it and removes whatever
+     * {@code objectKeys} were written; waiting callers then start over.
+     */
+    public Mono<String> acquireOrStore(
+            ContentBlobKind kind,
+            String checksumSha256,
+            int processingVersion,
+            String objectKey,
+            Mono<?> store,
+            Collection<String> objectKeys
+    ) {
+        return acquireRow(kind, checksumSha256, processingVersion, objectKey)
+                .flatMap(row -> {
+                    if (!row.objectKey().equals(objectKey)) {
+                        return row.pending()
+                                ? awaitReady(row, kind, checksumSha256, processingVersion)
+                                        .switchIfEmpty(Mono.defer(() -> acquireOrStore(
+                                                kind, checksumSha256, processingVersion, objectKey, store, objectKeys)))
+                                : Mono.just(row.objectKey());
+                    }
+                    return store.flatMap(ignored -> markReady(row.id()))
+                            .switchIfEmpty(Mono.defer(() -> abandon(row.id(), objectKeys).then(Mono.empty())))
+                            .onErrorResume(error -> abandon(row.id(), objectKeys).then(Mono.error(error)));
+                });
+    }
+
+    public Mono<String> retain(ContentBlobKind kind, String checksumSha256, int processingVersion) {
+        return databaseClient.sql("""
+                        UPDATE content_blob
+                        SET ref_count = ref_count + 1
+                        WHERE kind = :kind
+                          AND checksum_sha256 = :checksum
+                          AND processing_version = :version
+                          AND pending = FALSE
+                        """)
+                .bind("kind", kind.name())
+                .bind("checksum", checksumSha256)
+                .bind("version", processingVersion)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated > 0
+                        ? findRow(kind, checksumSha256, processingVersion).map(BlobRow::objectKey)
+                        : Mono.empty());
+    }
+
+    public Mono<Void> releaseAndDelete(
+            ContentBlobKind kind,
+            String checksumSha256,
+            int processingVersion,
+            Collection<String> objectKeys
+    ) {
+        return release(kind, checksumSha256, processingVersion)
+                .flatMap(ignored -> deleteObjects(objectKeys));
+    }
+
+    public Mono<Void> deleteObjects(Collection<String> objectKeys) {
+        return Flux.fromIterable(objectKeys)
+                .flatMap(key -> avatarStorageService.deleteObject(key)
+                        .onErrorResume(error -> {
+                            log.warn("Failed to delete blob object {}, queueing for retry", key, error);
+                            return queueOrphan(key);
+                        }))
+                .then();
+    }
+
+    @Scheduled(fixedDelayString = "${avatar.orphan-sweep-interval}")
+    public Mono<Void> sweepOrphans() {
+        return abandonStalePending().then(databaseClient.sql("""
+                        SELECT id, object_key
+                        FROM storage_object_orphan
+                        ORDER BY id
+                        LIMIT :limit
+                        """)
+                .bind("limit", ORPHAN_SWEEP_BATCH)
+                .map((row, metadata) -> new Orphan(
+                        row.get("id", Long.class),
+                        row.get("object_key", String.class)
+                ))
+                .all()
+                .concatMap(orphan -> avatarStorageService.deleteObject(orphan.objectKey())
+                        .then(databaseClient.sql("DELETE FROM storage_object_orphan WHERE id = :id")
+                                .bind("id", orphan.id())
+                                .fetch()
+                                .rowsUpdated())
+                        .onErrorResume(error -> {
+                            log.warn("Failed to delete orphaned object {}", orphan.objectKey(), error);
+                            return Mono.empty();
+                        }))
+                .then());
+    }
+
+    private Mono<Void> abandonStalePending() {
+        return databaseClient.sql("""
+                        SELECT id, object_key
+                        FROM content_blob
+                        WHERE pending = TRUE
+                          AND created_at < NOW() - INTERVAL :seconds SECOND
+                        ORDER BY id
+                        LIMIT :limit
+                        """)
+                .bind("seconds", PENDING_ABANDON_AFTER.toSeconds())
+                .bind("limit", ORPHAN_SWEEP_BATCH)
+                .map((row, metadata) -> new Orphan(
+                        row.get("id", Long.class),
+                        row.get("object_key", String.class)
+                ))
+                .all()
+                .concatMap(stale -> {
+                    log.warn("Abandoning content blob {} left pending", stale.objectKey());
+                    return abandon(stale.id(), List.of(stale.objectKey()));
+                })
+                .then();
+    }
+
+    private Mono<Void> queueOrphan(String objectKey) {
+        return databaseClient.sql("""
+                        INSERT IGNORE INTO storage_object_orphan (object_key)
+                        VALUES (:objectKey)
+                        """)
+                .bind("objectKey", objectKey)
+                .fetch()
+                .rowsUpdated()
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Failed to queue orphaned object {}", objectKey, error);
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<String> release(ContentBlobKind kind, String checksumSha256, int processingVersion) {
+        return transactionalOperator.transactional(databaseClient.sql("""
+                        SELECT object_key, ref_count
+                        FROM content_blob
+                        WHERE kind = :kind
+                          AND checksum_sha256 = :checksum
+                          AND processing_version = :version
+                        FOR UPDATE
+                        """)
+                .bind("kind", kind.name())
+                .bind("checksum", checksumSha256)
+                .bind("version", processingVersion)
+                .map((row, metadata) -> new BlobRef(
+                        row.get("object_key", String.class),
+                        row.get("ref_count", Long.class)
+                ))
+                .one()
+                .flatMap(blob -> {
+                    if (blob.refCount() > 1) {
+                        return databaseClient.sql("""
+                                        UPDATE content_blob
+                                        SET ref_count = ref_count - 1
+                                        WHERE kind = :kind
+                                          AND checksum_sha256 = :checksum
+                                          AND processing_version = :version
+                                        """)
+                                .bind("kind", kind.name())
+                                .bind("checksum", checksumSha256)
+                                .bind("version", processingVersion)
+                                .fetch()
+                                .rowsUpdated()
+                                .then(Mono.<String>empty());
+                    }
+                    return databaseClient.sql("""
+                                    DELETE FROM content_blob
+                                    WHERE kind = :kind
+                                      AND checksum_sha256 = :checksum
+                                      AND processing_version = :version
+                                    """)
+                            .bind("kind", kind.name())
+                            .bind("checksum", checksumSha256)
+                            .bind("version", processingVersion)
+                            .fetch()
+                            .rowsUpdated()
+                            .thenReturn(blob.objectKey());
+                }));
+    }
+
+    private Mono<BlobRow> acquireRow(ContentBlobKind kind, String checksumSha256, int processingVersion, String objectKey) {
+        return transactionalOperator.transactional(databaseClient.sql("""
+                        INSERT INTO content_blob (kind, checksum_sha256, processing_version, object_key, ref_count, pending)
+                        VALUES (:kind, :checksum, :version, :objectKey, 1, TRUE)
+                        ON DUPLICATE KEY UPDATE ref_count = ref_count + 1
+                        """)
+                .bind("kind", kind.name())
+                .bind("checksum", checksumSha256)
+                .bind("version", processingVersion)
+                .bind("objectKey", objectKey)
+                .fetch()
+                .rowsUpdated()
+                .then(findRow(kind, checksumSha256, processingVersion)));
+    }
+
+    private Mono<BlobRow> findRow(ContentBlobKind kind, String checksumSha256, int processingVersion) {
+        return databaseClient.sql("""
+                        SELECT id, object_key, pending
+                        FROM content_blob
+                        WHERE kind = :kind
+                          AND checksum_sha256 = :checksum
+                          AND processing_version = :version
+                        """)
+                .bind("kind", kind.name())
+                .bind("checksum", checksumSha256)
+                .bind("version", processingVersion)
+                .map((row, metadata) -> new BlobRow(
+                        row.get("id", Long.class),
+                        row.get("object_key", String.class),
+                        Boolean.TRUE.equals(row.get("pending", Boolean.class))
+                ))
+                .one();
+    }
+
+    /**
+     * Polls a row another caller is still storing. Emits its key once it is ready, or completes empty when the row
+     * was abandoned and the reference taken on it is gone.
+     */
+    private Mono<String> awaitReady(BlobRow acquired, ContentBlobKind kind, String checksumSha256, int processingVersion) {
+        return Mono.defer(() -> findRow(kind, checksumSha256, processingVersion))
+                .flatMap(row -> {
+                    if (!row.id().equals(acquired.id())) {
+                        return Mono.<Optional<String>>just(Optional.empty());
+                    }
+                    return row.pending()
+                            ? Mono.<Optional<String>>error(new BlobPendingException())
+                            : Mono.just(Optional.of(row.objectKey()));
+                })
+                .defaultIfEmpty(Optional.empty())
+                .retryWhen(Retry.fixedDelay(PENDING_MAX_POLLS, PENDING_POLL_INTERVAL)
+                        .filter(BlobPendingException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> new ResponseStatusException(
+                                HttpStatus.SERVICE_UNAVAILABLE,
+                                "Content is still being stored"
+                        )))
+                .onErrorResume(ResponseStatusException.class, error -> dropReference(acquired.id())
+                        .then(Mono.error(error)))
+                .flatMap(key -> Mono.justOrEmpty(key));
+    }
+
+    private Mono<String> markReady(Long id) {
+        return databaseClient.sql("""
+                        UPDATE content_blob
+                        SET pending = FALSE
+                        WHERE id = :id
+                        """)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated > 0
+                        ? databaseClient.sql("SELECT object_key FROM content_blob WHERE id = :id")
+                                .bind("id", id)
+                                .map((row, metadata) -> row.get("object_key", String.class))
+                                .one()
+                        : Mono.error(new IllegalStateException("Pending content blob " + id + " disappeared")));
+    }
+
+    private Mono<Void> dropReference(Long id) {
+        return databaseClient.sql("""
+                        UPDATE content_blob
+                        SET ref_count = ref_count - 1
+                        WHERE id = :id
+                          AND ref_count > 1
+                        """)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private Mono<Void> abandon(Long id, Collection<String> objectKeys) {
+        return databaseClient.sql("DELETE FROM content_blob WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .then(deleteObjects(objectKeys));
+    }
+
+    private record BlobRef(String objectKey, Long refCount) {}
+
+    private record BlobRow(Long id, String objectKey, boolean pending) {}
+
+    private static final class BlobPendingException extends RuntimeException {
+        private BlobPendingException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private record Orphan(Long id, String objectKey) {}
+}
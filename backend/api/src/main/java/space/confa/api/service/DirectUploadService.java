@@ -0,0 +1,117 @@
+package space.confa.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import space.confa.api.configuration.properties.AvatarProp;
+import space.confa.api.model.dto.request.CreateUploadDto;
+import space.confa.api.model.dto.response.PresignedUploadDto;
+import space.confa.api.service.storage.AvatarStorageService;
+import space.confa.api.service.storage.ObjectMetadata;
+import space.confa.api.service.storage.ObjectStream;
+import space.confa.api.service.storage.PresignedUpload;
+import space.confa.api.service.storage.S3ObjectSupport;
+import space.confa.api.service.storage.SpooledUpload;
+import space.confa.api.service.storage.UploadSpooler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Presigned direct-to-bucket uploads. Clients PUT into a per-user staging prefix that the bucket expires on its
+ * own; finalizing moves the content to its permanent key and removes the staged object.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectUploadService {
+
+    private final AvatarStorageService avatarStorageService;
+    private final UploadSpooler uploadSpooler;
+    private final AvatarProp avatarProp;
+
+    public Mono<PresignedUploadDto> createUpload(
+            String namespace,
+            Long userId,
+            CreateUploadDto dto,
+            String contentType,
+            String extension,
+            String limitMessage
+    ) {
+        return Mono.defer(() -> {
+            if (dto.sizeBytes() > avatarProp.maxUploadBytes()) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, limitMessage));
+            }
+            String key = prefix(namespace, userId) + UUID.randomUUID() + "." + extension;
+            PresignedUpload upload = avatarStorageService.generatePresignedPut(
+                    key,
+                    contentType,
+                    dto.sizeBytes(),
+                    dto.checksumSha256().toLowerCase(Locale.ROOT),
+                    Duration.ofSeconds(Math.max(60, avatarProp.presignTtlSeconds()))
+            );
+            return Mono.just(new PresignedUploadDto(key, upload.url(), upload.method(), upload.headers(), upload.expiresAt()));
+        });
+    }
+
+    public Mono<Void> validateKey(String namespace, Long userId, String key) {
+        String prefix = prefix(namespace, userId);
+        if (key == null || !key.startsWith(prefix) || key.length() == prefix.length() || key.indexOf('/', prefix.length()) >= 0) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid upload key"));
+        }
+        return Mono.empty();
+    }
+
+    public <T> Mono<T> finalizeUpload(String key, Function<ObjectMetadata, Mono<T>> finalizer) {
+        return avatarStorageService.headObject(key)
+                .onErrorMap(error -> !(error instanceof ResponseStatusException),
+                        error -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"))
+                .flatMap(finalizer)
+                .flatMap(result -> discard(key).thenReturn(result))
+                .onErrorResume(DirectUploadService::isRejected, error -> discard(key).then(Mono.error(error)));
+    }
+
+    public <T> Mono<T> spool(String key, ObjectMetadata metadata, String limitMessage, Function<SpooledUpload, Mono<T>> consumer) {
+        return uploadSpooler.spool(
+                avatarStorageService.openObject(key, null).flatMapMany(ObjectStream::content),
+                avatarProp.maxUploadBytes(),
+                limitMessage,
+                upload -> upload.checksumSha256().equals(metadata.checksumSha256())
+                        ? consumer.apply(upload)
+                        : Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Checksum mismatch"))
+        );
+    }
+
+    public <T> Mono<T> sample(String key, long sizeBytes, long headBytes, long tailBytes, Function<Path, Mono<T>> consumer) {
+        return uploadSpooler.sample(
+                sizeBytes,
+                headBytes,
+                tailBytes,
+                (start, end) -> avatarStorageService.openObject(key, "bytes=" + start + "-" + end)
+                        .flatMapMany(ObjectStream::content),
+                consumer
+        );
+    }
+
+    private Mono<Void> discard(String key) {
+        return avatarStorageService.deleteObject(key)
+                .onErrorResume(error -> {
+                    log.warn("Failed to remove staged upload {}", key, error);
+                    return Mono.empty();
+                });
+    }
+
+    private static String prefix(String namespace, Long userId) {
+        return S3ObjectSupport.UPLOAD_PREFIX + namespace + "/" + userId + "/";
+    }
+
+    private static boolean isRejected(Throwable error) {
+        return error instanceof ResponseStatusException e && e.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST);
+    }
+}
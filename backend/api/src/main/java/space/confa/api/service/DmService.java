@@ -18,58 +18,81 @@ import space.confa.api.model.entity.ChannelEntity;
 import space.confa.api.model.entity.ChannelMemberEntity;
 import space.confa.api.shared.mapper.MessengerMapper;
 
+import java.time.Instant;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class DmService {
 
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 200;
+
     private final DatabaseClient databaseClient;
     private final ChannelRepository channelRepository;
     private final ChannelMemberRepository channelMemberRepository;
     private final UserRepository userRepository;
+    private final MessengerEventService messengerEventService;
 
-    public Flux<DmSummaryDto> getDmList(Long userId) {
-        return databaseClient.sql("""
-                        SELECT c.id as channel_id,
-                               u.id as peer_user_id,
-                               u.username as peer_username,
-                               m.body as last_message_body,
-                               m.created_at as last_message_at,
-                               COALESCE((
-                                   SELECT COUNT(*)
-                                   FROM message m_unread
-                                   WHERE m_unread.channel_id = c.id
-                                     AND m_unread.deleted_at IS NULL
-                                     AND m_unread.sender_user_id IS NOT NULL
-                                     AND m_unread.sender_user_id <> :userId
-                                     AND (
-                                         crs.last_read_message_id IS NULL
-                                         OR m_unread.id > crs.last_read_message_id
-                                     )
-                               ), 0) AS unread_count
-                        FROM channel c
-                        JOIN channel_member cm_self ON cm_self.channel_id = c.id AND cm_self.user_id = :userId
-                        JOIN channel_member cm_peer ON cm_peer.channel_id = c.id AND cm_peer.user_id <> :userId
-                        JOIN user u ON u.id = cm_peer.user_id
-                        LEFT JOIN channel_read_state crs ON crs.channel_id = c.id AND crs.user_id = :userId
-                        LEFT JOIN message m ON m.id = (
-                            SELECT id FROM message
-                            WHERE channel_id = c.id
-                            ORDER BY id DESC
-                            LIMIT 1
-                        )
-                        WHERE c.type = 'DM'
-                        ORDER BY COALESCE(m.created_at, c.created_at) DESC
-                        """)
-                .bind("userId", userId)
-                .map((row, metadata) -> new DmSummaryDto(
-                        row.get("channel_id", Long.class),
-                        row.get("peer_user_id", Long.class),
-                        row.get("peer_username", String.class),
-                        row.get("last_message_body", String.class),
-                        row.get("last_message_at", java.time.Instant.class),
-                        row.get("unread_count", Long.class)
-                ))
+    public Flux<DmSummaryDto> getDmList(Long userId, String cursor, Integer limit) {
+        int safeLimit = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        String sql = """
+                SELECT c.id as channel_id,
+                       u.id as peer_user_id,
+                       u.username as peer_username,
+                       c.last_message_preview as last_message_body,
+                       c.last_message_at,
+                       cm_self.last_activity_at,
+                       COALESCE(cuc.unread_count, 0) AS unread_count
+                FROM channel_member cm_self
+                JOIN channel c ON c.id = cm_self.channel_id AND c.type = 'DM'
+                JOIN channel_member cm_peer ON cm_peer.channel_id = c.id AND cm_peer.user_id <> :userId
+                JOIN user u ON u.id = cm_peer.user_id
+                LEFT JOIN channel_unread_counter cuc ON cuc.channel_id = c.id AND cuc.user_id = :userId
+                WHERE cm_self.user_id = :userId
+                %s
+                ORDER BY cm_self.last_activity_at DESC, cm_self.channel_id DESC
+                LIMIT :limit
+                """;
+        DatabaseClient.GenericExecuteSpec spec;
+
+        if (cursor == null || cursor.isBlank()) {
+            spec = databaseClient.sql(sql.formatted(""))
+                    .bind("userId", userId)
+                    .bind("limit", safeLimit);
+        } else {
+            DmCursor position = parseCursor(cursor);
+            if (position == null) {
+                return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+            }
+            spec = databaseClient.sql(sql.formatted("""
+                            AND (
+                                cm_self.last_activity_at < :cursorActivityAt
+                                OR (cm_self.last_activity_at = :cursorActivityAt AND cm_self.channel_id < :cursorChannelId)
+                            )
+                            """))
+                    .bind("userId", userId)
+                    .bind("cursorActivityAt", position.activityAt())
+                    .bind("cursorChannelId", position.channelId())
+                    .bind("limit", safeLimit);
+        }
+
+        Flux<DmSummaryDto> dms = spec.map((row, metadata) -> {
+                    Long channelId = row.get("channel_id", Long.class);
+                    Instant activityAt = row.get("last_activity_at", Instant.class);
+                    return new DmSummaryDto(
+                            channelId,
+                            row.get("peer_user_id", Long.class),
+                            row.get("peer_username", String.class),
+                            row.get("last_message_body", String.class),
+                            row.get("last_message_at", Instant.class),
+                            row.get("unread_count", Long.class),
+                            formatCursor(activityAt, channelId)
+                    );
+                })
                 .all();
+
+        return dms;
     }
 
     @Transactional
@@ -128,7 +151,29 @@ public class DmService {
                                 .bind("high", high)
                                 .bind("channelId", channel.getId())
                                 .then())
+                        .then(messengerEventService.channelCreated(channel.getId(), userId, List.of(userId, peerId)))
                         .thenReturn(channel))
                 .map(MessengerMapper::toChannelDto);
     }
+
+    private String formatCursor(Instant activityAt, Long channelId) {
+        return activityAt.toEpochMilli() + ":" + channelId;
+    }
+
+    private DmCursor parseCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return new DmCursor(
+                    Instant.ofEpochMilli(Long.parseLong(cursor.substring(0, separator))),
+                    Long.parseLong(cursor.substring(separator + 1))
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record DmCursor(Instant activityAt, Long channelId) {}
 }
@@ -12,17 +12,21 @@ import space.confa.api.infrastructure.db.repository.MessageRepository;
 import space.confa.api.model.domain.MessageKind;
 import space.confa.api.model.dto.request.CreateMessageDto;
 import space.confa.api.model.dto.request.UpdateMessageDto;
+import space.confa.api.model.dto.response.MessageChangesDto;
 import space.confa.api.model.dto.response.MessageDto;
 import space.confa.api.model.dto.response.MessagePageDto;
 import space.confa.api.model.dto.response.MessageReactionDto;
 import space.confa.api.model.entity.MessageEntity;
+import space.confa.api.service.cache.ChannelTailCache;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -34,11 +38,21 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final MessengerAccessService messengerAccessService;
+    private final MessengerEventService messengerEventService;
+    private final UnreadCounterService unreadCounterService;
+    private final ChannelActivityService channelActivityService;
+    private final ChannelTailCache channelTailCache;
     private final DatabaseClient databaseClient;
 
     public Mono<MessagePageDto> getMessages(Long userId, Long channelId, Long cursor, Integer limit) {
         int safeLimit = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
 
+        if (cursor == null && safeLimit <= ChannelTailCache.TAIL_SIZE) {
+            return messengerAccessService.getChannelForAccess(userId, channelId)
+                    .then(channelTailCache.newestPage(channelId, userId, safeLimit, () -> loadTail(channelId)))
+                    .map(items -> new MessagePageDto(items, nextCursor(items)));
+        }
+
         return messengerAccessService.getChannelForAccess(userId, channelId)
                 .thenMany(fetchMessages(channelId, cursor, safeLimit))
                 .collectList()
@@ -46,6 +60,36 @@ public class MessageService {
                         .map(enriched -> new MessagePageDto(enriched, nextCursor(enriched))));
     }
 
+    /**
+     * Part of the validator for {@link #getMessages}: newest pages come from the tail cache, which may lag the
+     * channel version token until this node has applied the corresponding event.
+     */
+    public String pageVersion(Long channelId, Long cursor, Integer limit) {
+        int safeLimit = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return cursor == null && safeLimit <= ChannelTailCache.TAIL_SIZE ? channelTailCache.version(channelId) : "";
+    }
+
+    public Mono<MessageChangesDto> getMessageChanges(Long userId, Long channelId, Long since, Integer limit) {
+        int safeLimit = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        return messengerAccessService.getChannelForAccess(userId, channelId)
+                .then(channelActivityService.currentChangeVersion(channelId))
+                .flatMap(watermark -> {
+                    if (since == null || since >= watermark) {
+                        return Mono.just(new MessageChangesDto(List.of(), watermark, false));
+                    }
+                    return fetchChangedMessages(channelId, since, watermark, safeLimit + 1)
+                            .collectList()
+                            .flatMap(rows -> {
+                                boolean hasMore = rows.size() > safeLimit;
+                                List<ChangedMessage> page = hasMore ? rows.subList(0, safeLimit) : rows;
+                                long pageWatermark = hasMore ? page.get(page.size() - 1).changeVersion() : watermark;
+                                return enrichWithReactions(userId, page.stream().map(ChangedMessage::message).toList())
+                                        .map(items -> new MessageChangesDto(items, pageWatermark, hasMore));
+                            });
+                });
+    }
+
     @Transactional
     public Mono<MessageDto> createMessage(Long userId, Long channelId, CreateMessageDto dto) {
         return messengerAccessService.getChannelForAccess(userId, channelId)
@@ -57,7 +101,11 @@ public class MessageService {
                         .body(dto.body().trim())
                         .replyToMessageId(dto.replyToMessageId())
                         .build()))
-                .flatMap(saved -> fetchMessageById(userId, saved.getId()));
+                .flatMap(saved -> unreadCounterService.incrementForNewMessage(channelId, userId)
+                        .then(channelActivityService.messageCreated(saved.getId()))
+                        .then(channelActivityService.bumpChangeVersion(channelId, saved.getId()))
+                        .then(fetchMessageById(userId, saved.getId())))
+                .flatMap(message -> messengerEventService.messageCreated(message).thenReturn(message));
     }
 
     @Transactional
@@ -73,7 +121,10 @@ public class MessageService {
                             .editedAt(Instant.now())
                             .build());
                 })
-                .flatMap(saved -> fetchMessageById(userId, saved.getId()));
+                .flatMap(saved -> channelActivityService.messageUpdated(saved.getChannelId(), saved.getId())
+                        .then(channelActivityService.bumpChangeVersion(saved.getChannelId(), saved.getId()))
+                        .then(fetchMessageById(userId, saved.getId())))
+                .flatMap(message -> messengerEventService.messageUpdated(message).thenReturn(message));
     }
 
     @Transactional
@@ -84,11 +135,23 @@ public class MessageService {
                     if (!userId.equals(message.getSenderUserId())) {
                         return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "No access to message"));
                     }
+                    Mono<Void> adjustCounters = message.getDeletedAt() == null
+                            ? unreadCounterService.decrementForDeletedMessage(message.getChannelId(), message.getId(), userId)
+                            : Mono.empty();
                     return messageRepository.save(message.toBuilder()
-                            .deletedAt(Instant.now())
-                            .deletedByUserId(userId)
-                            .build()).then();
-                });
+                                    .deletedAt(Instant.now())
+                                    .deletedByUserId(userId)
+                                    .build())
+                            .flatMap(deleted -> adjustCounters
+                                    .then(channelActivityService.messageDeleted(deleted.getChannelId(), deleted.getId()))
+                                    .then(channelActivityService.bumpChangeVersion(deleted.getChannelId(), deleted.getId()))
+                                    .thenReturn(deleted));
+                })
+                .flatMap(deleted -> messengerEventService.messageDeleted(
+                        deleted.getChannelId(),
+                        deleted.getId(),
+                        userId
+                ));
     }
 
     public Mono<List<MessageReactionDto>> getMessageReactions(Long userId, Long messageId) {
@@ -114,8 +177,10 @@ public class MessageService {
                                 .bind("emoji", emoji)
                                 .fetch()
                                 .rowsUpdated()
-                                .then()))
-                .then(getMessageReactions(userId, messageId));
+                                .filter(inserted -> inserted > 0)
+                                .flatMap(inserted -> incrementReactionSummary(messageId, emoji)
+                                        .then(channelActivityService.bumpChangeVersion(message.getChannelId(), messageId))))
+                        .then(publishReactions(userId, message)));
     }
 
     @Transactional
@@ -133,8 +198,51 @@ public class MessageService {
                                 .bind("emoji", emoji)
                                 .fetch()
                                 .rowsUpdated()
-                                .then()))
-                .then(getMessageReactions(userId, messageId));
+                                .filter(deleted -> deleted > 0)
+                                .flatMap(deleted -> decrementReactionSummary(messageId, emoji)
+                                        .then(channelActivityService.bumpChangeVersion(message.getChannelId(), messageId))))
+                        .then(publishReactions(userId, message)));
+    }
+
+    private Mono<Void> incrementReactionSummary(Long messageId, String emoji) {
+        return databaseClient.sql("""
+                        INSERT INTO message_reaction_summary (message_id, emoji, reaction_count)
+                        VALUES (:messageId, :emoji, 1)
+                        ON DUPLICATE KEY UPDATE reaction_count = reaction_count + 1
+                        """)
+                .bind("messageId", messageId)
+                .bind("emoji", emoji)
+                .then();
+    }
+
+    private Mono<Void> decrementReactionSummary(Long messageId, String emoji) {
+        return databaseClient.sql("""
+                        UPDATE message_reaction_summary
+                        SET reaction_count = reaction_count - 1
+                        WHERE message_id = :messageId AND emoji = :emoji AND reaction_count > 0
+                        """)
+                .bind("messageId", messageId)
+                .bind("emoji", emoji)
+                .then()
+                .then(databaseClient.sql("""
+                                DELETE FROM message_reaction_summary
+                                WHERE message_id = :messageId AND emoji = :emoji AND reaction_count = 0
+                                """)
+                        .bind("messageId", messageId)
+                        .bind("emoji", emoji)
+                        .then());
+    }
+
+    private Mono<List<MessageReactionDto>> publishReactions(Long userId, MessageEntity message) {
+        return fetchReactionsForMessages(userId, List.of(message.getId()))
+                .map(map -> map.getOrDefault(message.getId(), List.<MessageReactionDto>of()))
+                .flatMap(reactions -> messengerEventService.reactionsUpdated(
+                                message.getChannelId(),
+                                message.getId(),
+                                userId,
+                                reactions
+                        )
+                        .thenReturn(reactions));
     }
 
     private Flux<MessageDto> fetchMessages(Long channelId, Long cursor, int limit) {
@@ -197,6 +305,87 @@ public class MessageService {
         return spec.map((row, metadata) -> mapRowToMessageDto(row)).all();
     }
 
+    private Mono<List<ChannelTailCache.CachedMessage>> loadTail(Long channelId) {
+        return fetchMessages(channelId, null, ChannelTailCache.TAIL_SIZE)
+                .collectList()
+                .flatMap(items -> fetchReactorsForMessages(items.stream().map(MessageDto::id).toList())
+                        .map(reactors -> items.stream()
+                                .map(item -> new ChannelTailCache.CachedMessage(
+                                        item,
+                                        reactors.getOrDefault(item.id(), Map.of())
+                                ))
+                                .toList()));
+    }
+
+    private Mono<Map<Long, Map<String, Set<Long>>>> fetchReactorsForMessages(List<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        String placeholders = String.join(",", java.util.Collections.nCopies(messageIds.size(), "?"));
+        String sql = """
+                SELECT mr.message_id,
+                       mr.emoji,
+                       mr.user_id
+                FROM message_reaction mr
+                WHERE mr.message_id IN (%s)
+                """.formatted(placeholders);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (int i = 0; i < messageIds.size(); i++) {
+            spec = spec.bind(i, messageIds.get(i));
+        }
+
+        return spec.map((row, metadata) -> new Object[] {
+                row.get("message_id", Long.class),
+                row.get("emoji", String.class),
+                row.get("user_id", Long.class)
+        }).all().collectList().map(rows -> {
+            Map<Long, Map<String, Set<Long>>> map = new HashMap<>();
+            for (Object[] item : rows) {
+                map.computeIfAbsent((Long) item[0], ignored -> new HashMap<>())
+                        .computeIfAbsent((String) item[1], ignored -> new HashSet<>())
+                        .add((Long) item[2]);
+            }
+            return map;
+        });
+    }
+
+    private Flux<ChangedMessage> fetchChangedMessages(Long channelId, Long since, Long upTo, int limit) {
+        return databaseClient.sql("""
+                        SELECT m.id,
+                               m.channel_id,
+                               m.sender_user_id,
+                               u.username as sender_username,
+                               m.kind,
+                               m.body,
+                               m.reply_to_message_id,
+                               rm.body as reply_to_body,
+                               ru.username as reply_to_sender_username,
+                               m.created_at,
+                               m.edited_at,
+                               m.deleted_at,
+                               m.change_version
+                        FROM message m
+                        LEFT JOIN user u ON u.id = m.sender_user_id
+                        LEFT JOIN message rm ON rm.id = m.reply_to_message_id
+                        LEFT JOIN user ru ON ru.id = rm.sender_user_id
+                        WHERE m.channel_id = :channelId
+                          AND m.change_version > :since
+                          AND m.change_version <= :upTo
+                        ORDER BY m.change_version ASC
+                        LIMIT :limit
+                        """)
+                .bind("channelId", channelId)
+                .bind("since", since)
+                .bind("upTo", upTo)
+                .bind("limit", limit)
+                .map((row, metadata) -> new ChangedMessage(
+                        mapRowToMessageDto(row),
+                        row.get("change_version", Long.class)
+                ))
+                .all();
+    }
+
     private Long nextCursor(List<MessageDto> items) {
         if (items.isEmpty()) {
             return null;
@@ -274,34 +463,28 @@ public class MessageService {
         }
         List<Long> messageIds = items.stream().map(MessageDto::id).toList();
         return fetchReactionsForMessages(userId, messageIds)
-                .map(reactionsMap -> items.stream().map(item -> new MessageDto(
-                        item.id(),
-                        item.channelId(),
-                        item.senderUserId(),
-                        item.senderUsername(),
-                        item.kind(),
-                        item.body(),
-                        item.replyToMessageId(),
-                        item.replyToBody(),
-                        item.replyToSenderUsername(),
-                        reactionsMap.getOrDefault(item.id(), List.of()),
-                        item.createdAt(),
-                        item.editedAt(),
-                        item.deletedAt()
-                )).toList());
+                .map(reactionsMap -> items.stream()
+                        .map(item -> item.withReactions(reactionsMap.getOrDefault(item.id(), List.of())))
+                        .toList());
     }
 
     private Mono<Map<Long, List<MessageReactionDto>>> fetchReactionsForMessages(Long userId, List<Long> messageIds) {
         String placeholders = String.join(",", java.util.Collections.nCopies(messageIds.size(), "?"));
         String sql = """
-                SELECT mr.message_id,
-                       mr.emoji,
-                       COUNT(*) as reaction_count,
-                       MAX(CASE WHEN mr.user_id = ? THEN 1 ELSE 0 END) as reacted_by_me
-                FROM message_reaction mr
-                WHERE mr.message_id IN (%s)
-                GROUP BY mr.message_id, mr.emoji
-                ORDER BY mr.message_id, reaction_count DESC, mr.emoji
+                SELECT s.message_id,
+                       s.emoji,
+                       s.reaction_count,
+                       EXISTS (
+                           SELECT 1
+                           FROM message_reaction mr
+                           WHERE mr.message_id = s.message_id
+                             AND mr.user_id = ?
+                             AND mr.emoji = s.emoji
+                       ) as reacted_by_me
+                FROM message_reaction_summary s
+                WHERE s.message_id IN (%s)
+                  AND s.reaction_count > 0
+                ORDER BY s.message_id, s.reaction_count DESC, s.emoji
                 """.formatted(placeholders);
 
         DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind(0, userId);
@@ -337,4 +520,6 @@ public class MessageService {
         }
         return emoji;
     }
+
+    private record ChangedMessage(MessageDto message, Long changeVersion) {}
 }
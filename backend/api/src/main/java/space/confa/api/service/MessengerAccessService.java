@@ -1,32 +1,134 @@
 package space.confa.api.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import space.confa.api.configuration.properties.MessengerProp;
 import space.confa.api.infrastructure.db.repository.ChannelMemberRepository;
 import space.confa.api.infrastructure.db.repository.ChannelRepository;
 import space.confa.api.infrastructure.db.repository.WorkspaceMemberRepository;
 import space.confa.api.model.domain.ChannelType;
+import space.confa.api.model.domain.ChannelUserKey;
 import space.confa.api.model.entity.ChannelEntity;
 
+import java.time.Duration;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class MessengerAccessService {
 
+    private static final String INVALIDATION_TOPIC = "messenger:access:invalidate";
+    private static final String USER_PREFIX = "user:";
+
     private final WorkspaceMemberRepository workspaceMemberRepository;
     private final ChannelMemberRepository channelMemberRepository;
     private final ChannelRepository channelRepository;
+    private final Cache<ChannelUserKey, ChannelEntity> channelAccess;
+    private final Cache<WorkspaceUserKey, Boolean> workspaceAccess;
+    private final ReactiveStringRedisTemplate redis;
+    private Disposable invalidations;
+
+    public MessengerAccessService(
+            WorkspaceMemberRepository workspaceMemberRepository,
+            ChannelMemberRepository channelMemberRepository,
+            ChannelRepository channelRepository,
+            MessengerProp messengerProp,
+            ReactiveStringRedisTemplate redis
+    ) {
+        MessengerProp.AccessCache props = messengerProp.accessCache();
+        this.workspaceMemberRepository = workspaceMemberRepository;
+        this.channelMemberRepository = channelMemberRepository;
+        this.channelRepository = channelRepository;
+        this.redis = redis;
+        this.channelAccess = Caffeine.newBuilder()
+                .maximumSize(props.maxSize())
+                .expireAfterWrite(props.ttl())
+                .build();
+        this.workspaceAccess = Caffeine.newBuilder()
+                .maximumSize(props.maxSize())
+                .expireAfterWrite(props.ttl())
+                .build();
+    }
 
     public Mono<Void> ensureWorkspaceMember(Long userId, Long workspaceId) {
+        WorkspaceUserKey key = new WorkspaceUserKey(workspaceId, userId);
+        if (workspaceAccess.getIfPresent(key) != null) {
+            return Mono.empty();
+        }
         return workspaceMemberRepository.existsByWorkspaceIdAndUserId(workspaceId, userId)
                 .filter(Boolean.TRUE::equals)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "No access to workspace")))
+                .doOnNext(granted -> workspaceAccess.put(key, granted))
                 .then();
     }
 
+    /**
+     * Resolves the channel if the user may access it. Granted lookups are cached together with the channel row, so
+     * the returned entity can be up to {@code messenger.access-cache.ttl} old; denials are never cached.
+     */
     public Mono<ChannelEntity> getChannelForAccess(Long userId, Long channelId) {
+        ChannelUserKey key = new ChannelUserKey(channelId, userId);
+        ChannelEntity cached = channelAccess.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return resolveChannelAccess(userId, channelId)
+                .doOnNext(channel -> channelAccess.put(key, channel));
+    }
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        invalidations = redis.listenToChannel(INVALIDATION_TOPIC)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> applyInvalidation(message.getMessage()));
+    }
+
+    @PreDestroy
+    public void unsubscribeFromInvalidations() {
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+    }
+
+    public Mono<Void> revokeUser(Long userId) {
+        return Mono.fromRunnable(() -> invalidateUser(userId))
+                .then(broadcast(USER_PREFIX + userId));
+    }
+
+    public void invalidateUser(Long userId) {
+        channelAccess.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        workspaceAccess.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    private Mono<Void> broadcast(String message) {
+        return redis.convertAndSend(INVALIDATION_TOPIC, message)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to broadcast access invalidation {}", message, e);
+                    return Mono.empty();
+                });
+    }
+
+    private void applyInvalidation(String message) {
+        try {
+            if (message.startsWith(USER_PREFIX)) {
+                invalidateUser(Long.valueOf(message.substring(USER_PREFIX.length())));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed access invalidation {}", message);
+        }
+    }
+
+    private Mono<ChannelEntity> resolveChannelAccess(Long userId, Long channelId) {
         return channelRepository.findById(channelId)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Channel not found")))
                 .flatMap(channel -> {
@@ -55,4 +157,6 @@ public class MessengerAccessService {
                             }));
                 });
     }
+
+    private record WorkspaceUserKey(Long workspaceId, Long userId) {}
 }
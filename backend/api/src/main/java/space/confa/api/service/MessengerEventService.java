@@ -0,0 +1,258 @@
+package space.confa.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import space.confa.api.model.domain.MessengerEventType;
+import space.confa.api.model.dto.response.MessageDto;
+import space.confa.api.model.dto.response.MessageReactionDto;
+import space.confa.api.model.dto.response.MessengerEventDto;
+import space.confa.api.model.dto.response.ReactionCountDto;
+import space.confa.api.model.dto.response.ReadStateDto;
+import space.confa.api.service.event.MessengerEventBus;
+import space.confa.api.service.event.MessengerEventCursor;
+import space.confa.api.service.event.MessengerEventIds;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessengerEventService {
+
+    private final MessengerEventBus messengerEventBus;
+    private final MessengerVersionService messengerVersionService;
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> messageCreated(MessageDto message) {
+        return publishToChannel(message.channelId(), new MessengerEventDto(
+                null,
+                MessengerEventType.MESSAGE_CREATED,
+                message.channelId(),
+                message.id(),
+                message.senderUserId(),
+                message,
+                null,
+                null,
+                null,
+                Instant.now()
+        ));
+    }
+
+    public Mono<Void> messageUpdated(MessageDto message) {
+        return publishToChannel(message.channelId(), new MessengerEventDto(
+                null,
+                MessengerEventType.MESSAGE_UPDATED,
+                message.channelId(),
+                message.id(),
+                message.senderUserId(),
+                message,
+                null,
+                null,
+                null,
+                Instant.now()
+        ));
+    }
+
+    public Mono<Void> messageDeleted(Long channelId, Long messageId, Long actorUserId) {
+        return publishToChannel(channelId, new MessengerEventDto(
+                null,
+                MessengerEventType.MESSAGE_DELETED,
+                channelId,
+                messageId,
+                actorUserId,
+                null,
+                null,
+                null,
+                null,
+                Instant.now()
+        ));
+    }
+
+    /**
+     * Broadcasts reaction counts to every viewer of the channel. {@code reactedByMe} is only true for the actor, so it
+     * is sent as the list of the actor's emojis and other viewers keep their own state.
+     */
+    public Mono<Void> reactionsUpdated(
+            Long channelId,
+            Long messageId,
+            Long actorUserId,
+            List<MessageReactionDto> actorView
+    ) {
+        return publishToChannel(channelId, new MessengerEventDto(
+                null,
+                MessengerEventType.REACTIONS_UPDATED,
+                channelId,
+                messageId,
+                actorUserId,
+                null,
+                actorView.stream()
+                        .map(reaction -> new ReactionCountDto(reaction.emoji(), reaction.count()))
+                        .toList(),
+                actorView.stream()
+                        .filter(MessageReactionDto::reactedByMe)
+                        .map(MessageReactionDto::emoji)
+                        .toList(),
+                null,
+                Instant.now()
+        ));
+    }
+
+    public Mono<Void> readStateUpdated(ReadStateDto readState) {
+        return publishToUsers(List.of(readState.userId()), new MessengerEventDto(
+                null,
+                MessengerEventType.READ_STATE_UPDATED,
+                readState.channelId(),
+                readState.lastReadMessageId(),
+                readState.userId(),
+                null,
+                null,
+                null,
+                readState,
+                Instant.now()
+        ), messengerVersionService.usersChanged(List.of(readState.userId())));
+    }
+
+    public Mono<Void> channelCreated(Long channelId, Long actorUserId, Collection<Long> userIds) {
+        return publishToUsers(userIds, new MessengerEventDto(
+                null,
+                MessengerEventType.CHANNEL_CREATED,
+                channelId,
+                null,
+                actorUserId,
+                null,
+                null,
+                null,
+                null,
+                Instant.now()
+        ), messengerVersionService.channelChanged(channelId, true));
+    }
+
+    public Flux<StreamedEvent> streamForUser(Long userId, String lastEventId) {
+        Optional<MessengerEventCursor> resumeFrom = MessengerEventCursor.parse(lastEventId);
+        String userTopic = MessengerEventCursor.userTopic();
+        Flux<MessengerEventDto> userEvents = resume(
+                messengerEventBus.userEvents(userId),
+                resumeFrom.map(cursor -> messengerEventBus.userEventsAfter(userId, cursor.resumeId(userTopic)))
+                        .orElse(Flux.empty()),
+                resumeFrom.map(cursor -> cursor.resumeId(userTopic)).orElse(null)
+        ).share();
+
+        Flux<Long> channelIds = Flux.merge(
+                        findVisibleChannelIds(userId),
+                        userEvents.filter(event -> event.type() == MessengerEventType.CHANNEL_CREATED)
+                                .map(MessengerEventDto::channelId))
+                .distinct();
+
+        Flux<TopicEvent> events = Flux.merge(
+                userEvents.map(event -> new TopicEvent(userTopic, event)),
+                channelIds.flatMap(channelId -> {
+                    String channelTopic = MessengerEventCursor.channelTopic(channelId);
+                    return resume(
+                            messengerEventBus.channelEvents(channelId),
+                            resumeFrom.map(cursor -> messengerEventBus.channelEventsAfter(channelId, cursor.resumeId(channelTopic)))
+                                    .orElse(Flux.empty()),
+                            resumeFrom.map(cursor -> cursor.resumeId(channelTopic)).orElse(null)
+                    ).map(event -> new TopicEvent(channelTopic, event));
+                }, Integer.MAX_VALUE)
+        );
+
+        return Flux.defer(() -> {
+            AtomicReference<MessengerEventCursor> cursor = new AtomicReference<>(
+                    resumeFrom.orElseGet(() -> MessengerEventCursor.startingAt(System.currentTimeMillis())));
+            return events.map(topicEvent -> {
+                MessengerEventCursor advanced = cursor.updateAndGet(current ->
+                        current.advance(topicEvent.topic(), topicEvent.event().id()));
+                return new StreamedEvent(advanced.format(), topicEvent.event());
+            });
+        });
+    }
+
+    private Flux<MessengerEventDto> resume(
+            Flux<MessengerEventDto> live,
+            Flux<MessengerEventDto> replay,
+            String lastEventId
+    ) {
+        if (lastEventId == null) {
+            return live;
+        }
+        return Flux.defer(() -> {
+            AtomicReference<String> lastSeen = new AtomicReference<>(lastEventId);
+            Sinks.Many<MessengerEventDto> pending = Sinks.many().unicast().onBackpressureBuffer();
+            Disposable liveSubscription = live.subscribe(pending::tryEmitNext, pending::tryEmitError, pending::tryEmitComplete);
+            return Flux.concat(
+                            replay.doOnNext(event -> lastSeen.set(event.id())),
+                            pending.asFlux().filter(event -> MessengerEventIds.compare(event.id(), lastSeen.get()) > 0))
+                    .doFinally(signal -> liveSubscription.dispose());
+        });
+    }
+
+    private Flux<Long> findVisibleChannelIds(Long userId) {
+        return databaseClient.sql("""
+                        SELECT c.id AS channel_id
+                        FROM channel c
+                        JOIN workspace_member wm
+                          ON wm.workspace_id = c.workspace_id
+                         AND wm.user_id = :userId
+                        WHERE c.type <> 'DM'
+                          AND c.is_private = 0
+                        UNION
+                        SELECT cm.channel_id
+                        FROM channel_member cm
+                        WHERE cm.user_id = :userId
+                        """)
+                .bind("userId", userId)
+                .map((row, metadata) -> row.get("channel_id", Long.class))
+                .all();
+    }
+
+    private Mono<Void> publishToChannel(Long channelId, MessengerEventDto event) {
+        boolean sidebarChanged = event.type() != MessengerEventType.REACTIONS_UPDATED;
+        return afterCommit(Mono.defer(() -> messengerEventBus.publishToChannel(channelId, event)
+                .then(messengerVersionService.channelChanged(channelId, sidebarChanged))));
+    }
+
+    private Mono<Void> publishToUsers(Collection<Long> userIds, MessengerEventDto event, Mono<Void> versionChange) {
+        return afterCommit(Flux.fromIterable(userIds)
+                .flatMap(userId -> messengerEventBus.publishToUser(userId, event))
+                .then(versionChange));
+    }
+
+    private Mono<Void> afterCommit(Mono<Void> publish) {
+        Mono<Void> safePublish = publish.onErrorResume(error -> {
+            log.warn("Failed to publish messenger event", error);
+            return Mono.empty();
+        });
+
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        return safePublish;
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return safePublish;
+                        }
+                    });
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, ignored -> safePublish);
+    }
+
+    public record StreamedEvent(String cursor, MessengerEventDto event) {}
+
+    private record TopicEvent(String topic, MessengerEventDto event) {}
+}
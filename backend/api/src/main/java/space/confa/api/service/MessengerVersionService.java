@@ -0,0 +1,158 @@
+package space.confa.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessengerVersionService {
+
+    private static final String KEY_PREFIX = "messenger:version:";
+    private static final Duration TOKEN_TTL = Duration.ofDays(7);
+
+    private final ReactiveStringRedisTemplate redis;
+    private final DatabaseClient databaseClient;
+    private final Cache<Long, List<String>> sidebarKeysByChannel = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public static String channelKey(Long channelId) {
+        return KEY_PREFIX + "channel:" + channelId;
+    }
+
+    public static String workspaceKey(Long workspaceId) {
+        return KEY_PREFIX + "workspace:" + workspaceId;
+    }
+
+    public static String userKey(Long userId) {
+        return KEY_PREFIX + "user:" + userId;
+    }
+
+    public Mono<Void> channelChanged(Long channelId, boolean sidebarChanged) {
+        if (!sidebarChanged) {
+            return bump(List.of(channelKey(channelId)));
+        }
+        return sidebarKeys(channelId)
+                .flatMap(sidebarKeys -> {
+                    List<String> keys = new ArrayList<>(sidebarKeys);
+                    keys.add(channelKey(channelId));
+                    return bump(keys);
+                });
+    }
+
+    public Mono<Void> usersChanged(Collection<Long> userIds) {
+        return bump(userIds.stream().map(MessengerVersionService::userKey).toList());
+    }
+
+    public <T> Mono<ResponseEntity<T>> conditional(
+            ServerWebExchange exchange,
+            String scope,
+            List<String> keys,
+            Supplier<Mono<T>> body
+    ) {
+        return etag(scope, keys)
+                .flatMap(etag -> {
+                    if (exchange.checkNotModified(etag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<T>build());
+                    }
+                    return body.get().map(value -> ResponseEntity.ok().eTag(etag).body(value));
+                })
+                .switchIfEmpty(Mono.defer(() -> body.get().map(ResponseEntity::ok)));
+    }
+
+    private Mono<String> etag(String scope, List<String> keys) {
+        return redis.opsForValue()
+                .multiGet(keys)
+                .flatMap(values -> Flux.range(0, keys.size())
+                        .concatMap(i -> values.get(i) != null ? Mono.just(values.get(i)) : initToken(keys.get(i)))
+                        .collectList())
+                .map(tokens -> "\"" + hash(scope + "|" + String.join("|", tokens)) + "\"")
+                .onErrorResume(e -> {
+                    log.warn("Failed to resolve messenger version tokens scope={}", scope, e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<String> initToken(String key) {
+        String token = newToken();
+        return redis.opsForValue()
+                .setIfAbsent(key, token, TOKEN_TTL)
+                .flatMap(created -> Boolean.TRUE.equals(created)
+                        ? Mono.just(token)
+                        : redis.opsForValue().get(key).defaultIfEmpty(token));
+    }
+
+    private Mono<Void> bump(List<String> keys) {
+        return Flux.fromIterable(keys)
+                .flatMap(key -> redis.opsForValue().set(key, newToken(), TOKEN_TTL))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to bump messenger version tokens keys={}", keys, e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<List<String>> sidebarKeys(Long channelId) {
+        List<String> cached = sidebarKeysByChannel.getIfPresent(channelId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return databaseClient.sql("""
+                        SELECT c.workspace_id,
+                               cm.user_id
+                        FROM channel c
+                        LEFT JOIN channel_member cm
+                               ON cm.channel_id = c.id
+                              AND c.workspace_id IS NULL
+                        WHERE c.id = :channelId
+                        """)
+                .bind("channelId", channelId)
+                .map((row, metadata) -> {
+                    Long workspaceId = row.get("workspace_id", Long.class);
+                    Long userId = row.get("user_id", Long.class);
+                    return workspaceId != null ? workspaceKey(workspaceId) : userId != null ? userKey(userId) : "";
+                })
+                .all()
+                .filter(key -> !key.isEmpty())
+                .distinct()
+                .collectList()
+                .doOnNext(keys -> sidebarKeysByChannel.put(channelId, List.copyOf(keys)));
+    }
+
+    private String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    private String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,43 +1,183 @@
 package space.confa.api.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.http.HttpStatus;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.response.ReadStateDto;
+import space.confa.api.service.cache.ChannelTailCache;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReadStateService {
 
+    private static final int FLUSH_BATCH_SIZE = 500;
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+    private static final String PENDING_KEY_PREFIX = "messenger:read-state:pending:";
+    private static final String PENDING_USERS_KEY = "messenger:read-state:pending-users";
+    private static final String VALUE_SEPARATOR = ":";
+    private static final String ENTRY_SEPARATOR = ",";
+
+    private static final RedisScript<Long> MERGE_SCRIPT = RedisScript.of("""
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            local id = ARGV[2]
+            local at = ARGV[3]
+            if current then
+                local separator = string.find(current, ':', 1, true)
+                local currentId = string.sub(current, 1, separator - 1)
+                local currentAt = string.sub(current, separator + 1)
+                if tonumber(currentId) > tonumber(id) then
+                    id = currentId
+                end
+                if tonumber(currentAt) > tonumber(at) then
+                    at = currentAt
+                end
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], id .. ':' .. at)
+            redis.call('SADD', KEYS[2], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<String> DRAIN_SCRIPT = RedisScript.of("""
+            local entries = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            redis.call('SREM', KEYS[2], ARGV[1])
+            local drained = {}
+            for i = 1, #entries, 2 do
+                drained[#drained + 1] = entries[i] .. ':' .. entries[i + 1]
+            end
+            return table.concat(drained, ',')
+            """, String.class);
+
     private final MessengerAccessService messengerAccessService;
+    private final ReadStateWriter readStateWriter;
+    private final ChannelTailCache channelTailCache;
     private final DatabaseClient databaseClient;
+    private final ReactiveStringRedisTemplate redis;
 
     public Mono<ReadStateDto> updateReadState(Long userId, Long channelId, Long lastReadMessageId) {
-        Instant now = Instant.now();
+        ReadStateDto readState = new ReadStateDto(channelId, userId, lastReadMessageId, Instant.now());
 
         return messengerAccessService.getChannelForAccess(userId, channelId)
                 .then(validateMessageBelongsToChannel(channelId, lastReadMessageId))
-                .then(databaseClient.sql("""
-                        INSERT INTO channel_read_state (channel_id, user_id, last_read_message_id, last_read_at)
-                        VALUES (:channelId, :userId, :lastReadMessageId, :lastReadAt)
-                        ON DUPLICATE KEY UPDATE
-                            last_read_message_id = VALUES(last_read_message_id),
-                            last_read_at = VALUES(last_read_at)
-                        """)
-                        .bind("channelId", channelId)
-                        .bind("userId", userId)
-                        .bind("lastReadMessageId", lastReadMessageId)
-                        .bind("lastReadAt", now)
-                .then())
-                .thenReturn(new ReadStateDto(channelId, userId, lastReadMessageId, now));
+                .then(redis.execute(
+                        MERGE_SCRIPT,
+                        List.of(pendingKey(userId), PENDING_USERS_KEY),
+                        List.of(
+                                String.valueOf(channelId),
+                                String.valueOf(lastReadMessageId),
+                                String.valueOf(readState.lastReadAt().toEpochMilli()),
+                                String.valueOf(userId)
+                        )
+                ).then())
+                .thenReturn(readState);
+    }
+
+    public Mono<Void> flushUser(Long userId) {
+        return drainUser(userId).flatMap(this::write);
+    }
+
+    @Scheduled(fixedDelayString = "${messenger.read-state.flush-interval}")
+    public Mono<Void> flushAll() {
+        return redis.opsForSet()
+                .members(PENDING_USERS_KEY)
+                .map(Long::valueOf)
+                .concatMap(this::drainUser)
+                .concatMapIterable(Function.identity())
+                .collectList()
+                .flatMap(this::write)
+                .onErrorResume(e -> {
+                    log.warn("Failed to flush pending read states", e);
+                    return Mono.empty();
+                });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll().block(SHUTDOWN_FLUSH_TIMEOUT);
+    }
+
+    private Mono<List<ReadStateDto>> drainUser(Long userId) {
+        return redis.execute(DRAIN_SCRIPT, List.of(pendingKey(userId), PENDING_USERS_KEY), List.of(String.valueOf(userId)))
+                .next()
+                .map(drained -> parsePending(userId, drained))
+                .defaultIfEmpty(List.of());
+    }
+
+    private List<ReadStateDto> parsePending(Long userId, String drained) {
+        List<ReadStateDto> readStates = new ArrayList<>();
+        if (drained.isEmpty()) {
+            return readStates;
+        }
+        for (String entry : drained.split(ENTRY_SEPARATOR)) {
+            String[] parts = entry.split(VALUE_SEPARATOR);
+            if (parts.length != 3) {
+                log.warn("Skipping malformed pending read state userId={} entry={}", userId, entry);
+                continue;
+            }
+            readStates.add(new ReadStateDto(
+                    Long.valueOf(parts[0]),
+                    userId,
+                    Long.valueOf(parts[1]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[2]))
+            ));
+        }
+        return readStates;
+    }
+
+    private Mono<Void> write(List<ReadStateDto> readStates) {
+        if (readStates.isEmpty()) {
+            return Mono.empty();
+        }
+        List<List<ReadStateDto>> batches = new ArrayList<>();
+        for (int i = 0; i < readStates.size(); i += FLUSH_BATCH_SIZE) {
+            batches.add(readStates.subList(i, Math.min(i + FLUSH_BATCH_SIZE, readStates.size())));
+        }
+        return Flux.fromIterable(batches)
+                .concatMap(batch -> readStateWriter.write(batch)
+                        .onErrorResume(e -> {
+                            log.warn("Failed to flush {} read states, retrying individually", batch.size(), e);
+                            return batch.size() == 1 ? dropFailed(batch.getFirst(), e) : writeIndividually(batch);
+                        }))
+                .then();
+    }
+
+    private Mono<Void> writeIndividually(List<ReadStateDto> batch) {
+        return Flux.fromIterable(batch)
+                .concatMap(readState -> readStateWriter.write(List.of(readState))
+                        .onErrorResume(e -> dropFailed(readState, e)))
+                .then();
+    }
+
+    private Mono<Void> dropFailed(ReadStateDto readState, Throwable error) {
+        log.error("Dropping read state channelId={} userId={} lastReadMessageId={}",
+                readState.channelId(), readState.userId(), readState.lastReadMessageId(), error);
+        return Mono.empty();
+    }
+
+    private String pendingKey(Long userId) {
+        return PENDING_KEY_PREFIX + userId;
     }
 
     private Mono<Void> validateMessageBelongsToChannel(Long channelId, Long messageId) {
+        if (channelTailCache.containsMessage(channelId, messageId)) {
+            return Mono.empty();
+        }
         return databaseClient.sql("""
                         SELECT id
                         FROM message
@@ -0,0 +1,56 @@
+package space.confa.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import space.confa.api.model.domain.ChannelUserKey;
+import space.confa.api.model.dto.response.ReadStateDto;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ReadStateWriter {
+
+    private final DatabaseClient databaseClient;
+    private final UnreadCounterService unreadCounterService;
+    private final MessengerEventService messengerEventService;
+
+    @Transactional
+    public Mono<Void> write(List<ReadStateDto> readStates) {
+        if (readStates.isEmpty()) {
+            return Mono.empty();
+        }
+        String values = String.join(",", Collections.nCopies(readStates.size(), "(?, ?, ?, ?)"));
+        String sql = """
+                INSERT INTO channel_read_state (channel_id, user_id, last_read_message_id, last_read_at)
+                VALUES %s
+                ON DUPLICATE KEY UPDATE
+                    last_read_message_id = GREATEST(COALESCE(last_read_message_id, 0), VALUES(last_read_message_id)),
+                    last_read_at = VALUES(last_read_at)
+                """.formatted(values);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (int i = 0; i < readStates.size(); i++) {
+            ReadStateDto readState = readStates.get(i);
+            spec = spec.bind(i * 4, readState.channelId())
+                    .bind(i * 4 + 1, readState.userId())
+                    .bind(i * 4 + 2, readState.lastReadMessageId())
+                    .bind(i * 4 + 3, readState.lastReadAt());
+        }
+
+        List<ChannelUserKey> keys = readStates.stream()
+                .map(readState -> new ChannelUserKey(readState.channelId(), readState.userId()))
+                .toList();
+
+        return spec.then()
+                .then(unreadCounterService.recompute(keys))
+                .thenMany(Flux.fromIterable(readStates))
+                .concatMap(messengerEventService::readStateUpdated)
+                .then();
+    }
+}
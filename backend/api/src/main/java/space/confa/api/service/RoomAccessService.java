@@ -9,7 +9,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import space.confa.api.configuration.properties.AppProp;
 import space.confa.api.infrastructure.db.repository.RoomInviteRepository;
 import space.confa.api.infrastructure.db.repository.RoomMemberRepository;
@@ -93,8 +92,7 @@ public class RoomAccessService {
 
     public Flux<RoomAccessSummaryDto> getRoomsForUserWithStats(Long userId) {
         return getRoomsForUser(userId)
-                .flatMapSequential(room -> Mono.fromCallable(() -> roomService.getParticipantsByRoom(room.name()))
-                        .subscribeOn(Schedulers.boundedElastic())
+                .flatMapSequential(room -> roomService.getParticipantsByRoom(room.name())
                         .map(participants -> {
                             List<String> names = participants.stream()
                                     .map(p -> p.name() != null && !p.name().isBlank() ? p.name() : p.identity())
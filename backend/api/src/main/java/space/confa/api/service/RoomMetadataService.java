@@ -1,14 +1,13 @@
 package space.confa.api.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.livekit.server.RoomServiceClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.response.RoomMetadataDto;
+import space.confa.api.service.livekit.LivekitGateway;
 import space.confa.api.service.parser.MetadataParser;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.List;
 
@@ -16,51 +15,41 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RoomMetadataService {
 
-    private final RoomServiceClient roomClient;
+    private final LivekitGateway livekitGateway;
     private final ObjectMapper objectMapper;
     private final MetadataParser metadataParser;
 
-    public RoomMetadataDto getRoomMetadata(String room) {
-        try {
-            var rooms = roomClient.listRooms(List.of(room)).execute().body();
-            if (rooms == null || rooms.isEmpty()) {
-                return RoomMetadataDto.builder()
-                        .isAgentsEnabled(false)
-                        .build();
-            }
-
-            return metadataParser.parseRoomMeta(rooms.getFirst().getMetadata());
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    public Mono<RoomMetadataDto> getRoomMetadata(String room) {
+        return livekitGateway.listRooms(List.of(room))
+                .map(rooms -> rooms.isEmpty()
+                        ? RoomMetadataDto.builder()
+                                .isAgentsEnabled(false)
+                                .build()
+                        : metadataParser.parseRoomMeta(rooms.getFirst().getMetadata()));
     }
 
-    public void enableAgents(String room, String adminUsername) {
-        RoomMetadataDto meta = getRoomMetadata(room)
-                .toBuilder()
-                .isAgentsEnabled(true)
-                .enabledBy(adminUsername)
-                .enabledAt(Instant.now())
-                .build();
-        updateRoomMetadata(room, meta);
+    public Mono<Void> enableAgents(String room, String adminUsername) {
+        return getRoomMetadata(room)
+                .map(meta -> meta.toBuilder()
+                        .isAgentsEnabled(true)
+                        .enabledBy(adminUsername)
+                        .enabledAt(Instant.now())
+                        .build())
+                .flatMap(meta -> updateRoomMetadata(room, meta));
     }
 
-    public void disableAgents(String room, String adminUsername) {
-        RoomMetadataDto meta = getRoomMetadata(room)
-                .toBuilder()
-                .isAgentsEnabled(false)
-                .enabledBy(adminUsername)
-                .enabledAt(Instant.now())
-                .build();
-        updateRoomMetadata(room, meta);
+    public Mono<Void> disableAgents(String room, String adminUsername) {
+        return getRoomMetadata(room)
+                .map(meta -> meta.toBuilder()
+                        .isAgentsEnabled(false)
+                        .enabledBy(adminUsername)
+                        .enabledAt(Instant.now())
+                        .build())
+                .flatMap(meta -> updateRoomMetadata(room, meta));
     }
 
-    private void updateRoomMetadata(String room, RoomMetadataDto dto) {
-        try {
-            String json = objectMapper.writeValueAsString(dto);
-            roomClient.updateRoomMetadata(room, json).execute();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    private Mono<Void> updateRoomMetadata(String room, RoomMetadataDto dto) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(dto))
+                .flatMap(json -> livekitGateway.updateRoomMetadata(room, json));
     }
 }
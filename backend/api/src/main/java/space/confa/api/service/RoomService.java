@@ -1,75 +1,71 @@
 package space.confa.api.service;
 
-import io.livekit.server.RoomServiceClient;
 import livekit.LivekitModels;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import space.confa.api.model.dto.response.ParticipantInfoDto;
 import space.confa.api.model.dto.response.RoomSummaryDto;
+import space.confa.api.service.livekit.LivekitGateway;
+import space.confa.api.service.livekit.LivekitRoomRegistry;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class RoomService {
 
-    private final RoomServiceClient roomClient;
+    private static final int PARTICIPANT_LOOKUP_CONCURRENCY = 4;
 
-    public List<RoomSummaryDto> getActiveRooms() {
-        try {
-            var rooms = roomClient.listRooms(null).execute().body();
-            if (rooms == null) {
-                return List.of();
-            }
+    private final LivekitGateway livekitGateway;
+    private final LivekitRoomRegistry roomRegistry;
 
-            List<RoomSummaryDto> result = new ArrayList<>();
-
-            for (var room : rooms) {
-                if (room.getNumParticipants() <= 0) {
-                    continue;
-                }
-
-                var participantsResp = getParticipantsByRoom(room.getName());
-                if (participantsResp.isEmpty()) {
-                    continue;
-                }
-
-                result.add(new RoomSummaryDto(
-                        room.getSid(),
-                        room.getName(),
-                        room.getNumParticipants(),
-                        room.getMetadata()
-                ));
-            }
-
-            return result;
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    public Mono<List<RoomSummaryDto>> getActiveRooms() {
+        if (roomRegistry.isReady()) {
+            return Mono.fromSupplier(() -> roomRegistry.rooms().stream()
+                    .filter(state -> !state.participantsByIdentity().isEmpty())
+                    .map(state -> new RoomSummaryDto(
+                            state.room().getSid(),
+                            state.room().getName(),
+                            state.participantsByIdentity().size(),
+                            state.room().getMetadata()
+                    ))
+                    .toList());
         }
+        return livekitGateway.listRooms(null)
+                .flatMapMany(Flux::fromIterable)
+                .filter(room -> room.getNumParticipants() > 0)
+                .flatMapSequential(room -> getParticipantsByRoom(room.getName())
+                        .filter(participants -> !participants.isEmpty())
+                        .map(participants -> new RoomSummaryDto(
+                                room.getSid(),
+                                room.getName(),
+                                room.getNumParticipants(),
+                                room.getMetadata()
+                        )), PARTICIPANT_LOOKUP_CONCURRENCY)
+                .collectList();
     }
 
-    public List<ParticipantInfoDto> getParticipantsByRoom(String room) {
-        try {
-            List<LivekitModels.ParticipantInfo> infos = roomClient.listParticipants(room).execute().body();
-
-            if (infos == null) {
-                return List.of();
-            }
+    public Mono<List<ParticipantInfoDto>> getParticipantsByRoom(String room) {
+        return participants(room)
+                .map(infos -> infos.stream()
+                        .map(p -> new ParticipantInfoDto(
+                                p.getSid(),
+                                p.getIdentity(),
+                                p.getName(),
+                                p.getKind(),
+                                p.getMetadata()
+                        ))
+                        .toList());
+    }
 
-            return infos.stream()
-                    .map(p -> new ParticipantInfoDto(
-                            p.getSid(),
-                            p.getIdentity(),
-                            p.getName(),
-                            p.getKind(),
-                            p.getMetadata()
-                    ))
-                    .toList();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+    public Mono<List<LivekitModels.ParticipantInfo>> participants(String room) {
+        if (roomRegistry.isReady()) {
+            return Mono.fromSupplier(() -> roomRegistry.room(room)
+                    .map(LivekitRoomRegistry.RoomState::participants)
+                    .orElse(List.of()));
         }
+        return livekitGateway.listParticipants(room);
     }
 }
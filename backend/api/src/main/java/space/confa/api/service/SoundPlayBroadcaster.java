@@ -0,0 +1,125 @@
+package space.confa.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import space.confa.api.configuration.properties.SoundProp;
+import space.confa.api.service.livekit.LivekitGateway;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class SoundPlayBroadcaster {
+
+    private final LivekitGateway livekitGateway;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final SoundProp.Play props;
+    private final Cache<PlayKey, PlayState> states;
+
+    public SoundPlayBroadcaster(
+            LivekitGateway livekitGateway,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            SoundProp soundProp
+    ) {
+        this.livekitGateway = livekitGateway;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.props = soundProp.play();
+        this.states = Caffeine.newBuilder()
+                .expireAfterAccess(props.stateIdleTtl())
+                .build();
+    }
+
+    public Mono<Void> broadcast(String roomName, Long userId, Map<String, Object> payload, long startedAt) {
+        return Mono.defer(() -> {
+            PlayState state = states.get(new PlayKey(roomName, userId), ignored -> new PlayState(newBucket()));
+            synchronized (state) {
+                if (state.inFlight) {
+                    state.pending = new PendingPlay(payload, startedAt);
+                    record("coalesced", startedAt);
+                    return Mono.empty();
+                }
+                if (!state.bucket.tryConsume(1)) {
+                    record("rate_limited", startedAt);
+                    return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many sound plays"));
+                }
+                state.inFlight = true;
+            }
+            return send(roomName, payload, startedAt)
+                    .doFinally(signal -> drain(roomName, state));
+        });
+    }
+
+    private void drain(String roomName, PlayState state) {
+        PendingPlay next;
+        synchronized (state) {
+            next = state.pending;
+            state.pending = null;
+            if (next != null && !state.bucket.tryConsume(1)) {
+                record("dropped", next.startedAt());
+                next = null;
+            }
+            if (next == null) {
+                state.inFlight = false;
+                return;
+            }
+        }
+        send(roomName, next.payload(), next.startedAt())
+                .doFinally(signal -> drain(roomName, state))
+                .subscribe(null, error -> log.warn("Failed to broadcast coalesced sound play room={}", roomName, error));
+    }
+
+    private Mono<Void> send(String roomName, Map<String, Object> payload, long startedAt) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(payload))
+                .flatMap(bytes -> livekitGateway.sendData(roomName, bytes, List.of()))
+                .timeout(props.timeout())
+                .doOnSuccess(ignored -> record("sent", startedAt))
+                .doOnError(error -> record("failed", startedAt))
+                .onErrorMap(error -> !(error instanceof ResponseStatusException),
+                        error -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Failed to broadcast sound", error));
+    }
+
+    private void record(String outcome, long startedAt) {
+        Timer.builder("sound.play.latency")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private Bucket newBucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(props.burstCapacity())
+                        .refillGreedy(props.refillTokens(), props.refillPeriod())
+                        .build())
+                .build();
+    }
+
+    private record PlayKey(String roomName, Long userId) {}
+
+    private record PendingPlay(Map<String, Object> payload, long startedAt) {}
+
+    private static final class PlayState {
+        private final Bucket bucket;
+        private boolean inFlight;
+        private PendingPlay pending;
+
+        private PlayState(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package space.confa.api.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.livekit.server.RoomServiceClient;
-import livekit.LivekitModels;
+import io.r2dbc.spi.Row;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
@@ -13,25 +13,38 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import space.confa.api.configuration.properties.AvatarProp;
+import space.confa.api.configuration.properties.SoundProp;
 import space.confa.api.infrastructure.db.repository.RoomMemberRepository;
 import space.confa.api.infrastructure.db.repository.RoomRepository;
 import space.confa.api.infrastructure.db.repository.SoundClipRepository;
 import space.confa.api.infrastructure.db.repository.UserRepository;
+import space.confa.api.model.domain.ContentBlobKind;
+import space.confa.api.model.dto.request.CreateUploadDto;
+import space.confa.api.model.dto.request.FinalizeSoundUploadDto;
+import space.confa.api.model.dto.response.PresignedUploadDto;
 import space.confa.api.model.dto.response.SoundClipDto;
 import space.confa.api.model.entity.RoomEntity;
 import space.confa.api.model.entity.SoundClipEntity;
+import space.confa.api.service.audio.AudioDurationProbe;
+import space.confa.api.service.audio.AudioTranscoder;
 import space.confa.api.service.storage.AvatarStorageService;
+import space.confa.api.service.storage.ObjectMetadata;
+import space.confa.api.service.storage.SpooledUpload;
+import space.confa.api.service.storage.UploadSpooler;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -44,7 +57,11 @@ public class SoundService {
             "audio/wav",
             "audio/webm"
     );
+    private static final String UPLOAD_NAMESPACE = "sounds";
     private static final int MAX_NAME_LENGTH = 96;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int ORIGINAL_BLOB_VERSION = 0;
+    private static final int PLAYBACK_BLOB_VERSION = 1;
 
     private final SoundClipRepository soundClipRepository;
     private final RoomMemberRepository roomMemberRepository;
@@ -52,16 +69,20 @@ public class SoundService {
     private final UserRepository userRepository;
     private final DatabaseClient databaseClient;
     private final AvatarStorageService avatarStorageService;
+    private final DirectUploadService directUploadService;
+    private final UploadSpooler uploadSpooler;
+    private final ContentBlobService contentBlobService;
     private final AvatarProp avatarProp;
-    private final ObjectMapper objectMapper;
-    private final RoomServiceClient roomServiceClient;
-    private final RoomAccessService roomAccessService;
+    private final SoundPlayBroadcaster soundPlayBroadcaster;
+    private final AudioDurationProbe audioDurationProbe;
+    private final AudioTranscoder audioTranscoder;
+    private final SoundProp soundProp;
 
     public Mono<SoundClipDto> upload(
             Long userId,
             String roomName,
             String displayName,
-            byte[] bytes,
+            Flux<DataBuffer> content,
             String contentType,
             String originalFilename
     ) {
@@ -69,41 +90,70 @@ public class SoundService {
         String safeName = normalizeName(displayName, originalFilename);
 
         return ensureUserExists(userId)
-                .then(validateFile(bytes, safeContentType))
+                .then(validateContentType(safeContentType))
                 .then(resolveMemberRoom(userId, roomName))
-                .flatMap(room -> Mono.fromCallable(() -> {
-                            String ext = extensionFrom(safeContentType, originalFilename);
-                            String objectKey = "sounds/users/" + userId + "/" + UUID.randomUUID() + "." + ext;
-                            avatarStorageService.putObject(objectKey, bytes, safeContentType);
-                            return SoundClipEntity.builder()
-                                    .ownerUserId(userId)
-                                    .sourceRoomId(room.getId())
-                                    .name(safeName)
-                                    .bucket(avatarProp.storage().bucket())
-                                    .objectKey(objectKey)
-                                    .contentType(safeContentType)
-                                    .sizeBytes((long) bytes.length)
-                                    .durationMs(null)
-                                    .build();
-                        }).subscribeOn(Schedulers.boundedElastic())
-                )
-                .flatMap(soundClipRepository::save)
+                .flatMap(room -> uploadSpooler.spool(content, avatarProp.maxUploadBytes(), "Sound exceeds size limit", upload -> {
+                    if (upload.sizeBytes() == 0) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty"));
+                    }
+                    return createSound(userId, room, safeName, upload, safeContentType, originalFilename);
+                }))
+                .flatMap(this::saveSound)
+                .flatMap(sound -> toDto(sound, false));
+    }
+
+    public Mono<PresignedUploadDto> createUpload(Long userId, CreateUploadDto dto) {
+        String safeContentType = normalizeContentType(dto.contentType());
+        return ensureUserExists(userId)
+                .then(validateContentType(safeContentType))
+                .then(directUploadService.createUpload(
+                        UPLOAD_NAMESPACE,
+                        userId,
+                        dto,
+                        safeContentType,
+                        extensionFrom(safeContentType, null),
+                        "Sound exceeds size limit"
+                ));
+    }
+
+    public Mono<SoundClipDto> finalizeUpload(Long userId, FinalizeSoundUploadDto dto) {
+        String uploadKey = dto.objectKey();
+        return directUploadService.validateKey(UPLOAD_NAMESPACE, userId, uploadKey)
+                .then(ensureUserExists(userId))
+                .then(soundClipRepository.existsByUploadKey(uploadKey))
+                .flatMap(exists -> exists
+                        ? Mono.<RoomEntity>error(new ResponseStatusException(HttpStatus.CONFLICT, "Upload already finalized"))
+                        : resolveMemberRoom(userId, dto.roomName()))
+                .flatMap(room -> directUploadService.finalizeUpload(uploadKey, metadata -> {
+                    String contentType = normalizeContentType(metadata.contentType());
+                    String name = normalizeName(dto.name(), null);
+                    return validateUploadedObject(metadata, contentType)
+                            .then(audioTranscoder.isEnabled()
+                                    ? directUploadService.spool(uploadKey, metadata, "Sound exceeds size limit", upload ->
+                                            createSound(userId, room, name, upload, contentType, null))
+                                    : adoptUpload(userId, room, name, uploadKey, metadata, contentType));
+                }))
+                .map(sound -> sound.toBuilder().uploadKey(uploadKey).build())
+                .flatMap(this::saveSound)
                 .flatMap(sound -> toDto(sound, false));
     }
 
-    public Flux<SoundClipDto> listForRoom(Long userId, String roomName) {
+    public Flux<SoundClipDto> listForRoom(Long userId, String roomName, String cursor, Integer limit, String query) {
+        SoundCursor position = parseCursor(cursor);
+        if (cursor != null && !cursor.isBlank() && position == null) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+        }
         return resolveMemberRoom(userId, roomName)
-                .flatMapMany(room -> querySoundsForRoom(room.getId())
-                        .flatMapSequential(raw -> toDto(
-                                raw.sound(),
-                                raw.shared()
-                        )));
+                .flatMapMany(room -> querySoundsForRoom(room.getId(), position, normalizeLimit(limit), query));
     }
 
-    public Flux<SoundClipDto> listAvailableForRoom(Long userId, String roomName) {
+    public Flux<SoundClipDto> listAvailableForRoom(Long userId, String roomName, String cursor, Integer limit, String query) {
+        SoundCursor position = parseCursor(cursor);
+        if (cursor != null && !cursor.isBlank() && position == null) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+        }
         return resolveMemberRoom(userId, roomName)
-                .flatMapMany(room -> queryAvailableSoundsForRoom(userId, room.getId())
-                        .flatMapSequential(sound -> toDto(sound, false)));
+                .flatMapMany(room -> queryAvailableSoundsForRoom(userId, room.getId(), position, normalizeLimit(limit), query));
     }
 
     public Mono<Void> share(Long userId, Long soundId, String targetRoomName) {
@@ -185,7 +235,8 @@ public class SoundService {
                                     .bind("soundId", soundId)
                                     .fetch()
                                     .rowsUpdated()
-                                    .then());
+                                    .then())
+                            .then(releaseBlob(sound));
                 });
     }
 
@@ -193,6 +244,7 @@ public class SoundService {
         if (roomName == null || roomName.isBlank()) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "roomName is required"));
         }
+        long startedAt = System.nanoTime();
         return resolveMemberRoom(userId, roomName)
                 .flatMap(room -> soundClipRepository.findById(soundId)
                         .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Sound not found")))
@@ -202,7 +254,7 @@ public class SoundService {
                             }
                             return canPlayInRoom(sound.getId(), room.getId())
                                     .flatMap(canPlay -> canPlay
-                                            ? sendPlayEvent(sound, userId, roomName)
+                                            ? sendPlayEvent(sound, userId, roomName, startedAt)
                                             : Mono.error(new ResponseStatusException(
                                             HttpStatus.FORBIDDEN,
                                             "Sound is not available in this room"
@@ -210,24 +262,210 @@ public class SoundService {
                         }));
     }
 
-    public Mono<SoundContent> getSoundContent(Long soundId) {
+    public Mono<SoundContent> getSoundContent(Long soundId, boolean original) {
         return soundClipRepository.findById(soundId)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Sound not found")))
                 .flatMap(sound -> {
                     if (sound.getDeletedAt() != null) {
                         return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Sound not found"));
                     }
-                    return Mono.fromCallable(() -> new SoundContent(
-                                    avatarStorageService.getObject(sound.getObjectKey()),
-                                    sound.getContentType()))
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .onErrorMap(error -> {
-                                log.warn("Failed to load sound content soundId={}", soundId, error);
-                                return new ResponseStatusException(HttpStatus.NOT_FOUND, "Sound content not found");
-                            });
+                    if (!original && sound.getPlaybackObjectKey() != null) {
+                        return Mono.just(new SoundContent(
+                                sound.getPlaybackObjectKey(),
+                                sound.getPlaybackContentType(),
+                                sound.getChecksumSha256() == null ? null : sound.getChecksumSha256() + "-playback"
+                        ));
+                    }
+                    return Mono.just(new SoundContent(
+                            sound.getObjectKey(),
+                            sound.getContentType(),
+                            sound.getChecksumSha256()
+                    ));
+                });
+    }
+
+    private Mono<Void> releaseBlob(SoundClipEntity sound) {
+        if (sound.getChecksumSha256() == null) {
+            return Mono.empty();
+        }
+        Mono<Void> playback = sound.getPlaybackObjectKey() == null
+                ? Mono.empty()
+                : contentBlobService.releaseAndDelete(
+                        ContentBlobKind.SOUND,
+                        sound.getChecksumSha256(),
+                        PLAYBACK_BLOB_VERSION,
+                        List.of(sound.getPlaybackObjectKey())
+                );
+        return contentBlobService.releaseAndDelete(
+                        ContentBlobKind.SOUND,
+                        sound.getChecksumSha256(),
+                        ORIGINAL_BLOB_VERSION,
+                        List.of(sound.getObjectKey())
+                )
+                .then(playback)
+                .onErrorResume(error -> {
+                    log.warn("Failed to release sound blob {}", sound.getObjectKey(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<SoundClipEntity> createSound(
+            Long userId,
+            RoomEntity room,
+            String name,
+            SpooledUpload upload,
+            String contentType,
+            String filename
+    ) {
+        return probeDuration(upload.file(), contentType, upload.checksumSha256())
+                .flatMap(durationMs -> storeOriginal(
+                                upload.checksumSha256(),
+                                contentType,
+                                filename,
+                                objectKey -> avatarStorageService.putObject(objectKey, upload.file(), contentType)
+                        )
+                        .flatMap(objectKey -> storePlayback(upload)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .map(playback -> SoundClipEntity.builder()
+                                        .ownerUserId(userId)
+                                        .sourceRoomId(room.getId())
+                                        .name(name)
+                                        .bucket(avatarProp.storage().bucket())
+                                        .objectKey(objectKey)
+                                        .playbackObjectKey(playback.map(Playback::objectKey).orElse(null))
+                                        .playbackContentType(playback.map(Playback::contentType).orElse(null))
+                                        .playbackSizeBytes(playback.map(Playback::sizeBytes).orElse(null))
+                                        .contentType(contentType)
+                                        .sizeBytes(upload.sizeBytes())
+                                        .checksumSha256(upload.checksumSha256())
+                                        .durationMs(durationMs.orElse(null))
+                                        .build())));
+    }
+
+    private Mono<SoundClipEntity> adoptUpload(
+            Long userId,
+            RoomEntity room,
+            String name,
+            String uploadKey,
+            ObjectMetadata metadata,
+            String contentType
+    ) {
+        return directUploadService.sample(
+                        uploadKey,
+                        metadata.contentLength(),
+                        AudioDurationProbe.HEAD_BYTES,
+                        AudioDurationProbe.TAIL_BYTES,
+                        sample -> probeDuration(sample, contentType, metadata.checksumSha256())
+                )
+                .flatMap(durationMs -> storeOriginal(
+                                metadata.checksumSha256(),
+                                contentType,
+                                null,
+                                objectKey -> avatarStorageService.copyObject(uploadKey, objectKey)
+                        )
+                        .map(objectKey -> SoundClipEntity.builder()
+                                .ownerUserId(userId)
+                                .sourceRoomId(room.getId())
+                                .name(name)
+                                .bucket(avatarProp.storage().bucket())
+                                .objectKey(objectKey)
+                                .contentType(contentType)
+                                .sizeBytes(metadata.contentLength())
+                                .checksumSha256(metadata.checksumSha256())
+                                .durationMs(durationMs.orElse(null))
+                                .build()));
+    }
+
+    private Mono<SoundClipEntity> saveSound(SoundClipEntity sound) {
+        return soundClipRepository.save(sound)
+                .onErrorResume(error -> releaseBlob(sound).then(Mono.error(error instanceof DuplicateKeyException
+                        ? new ResponseStatusException(HttpStatus.CONFLICT, "Upload already finalized", error)
+                        : error)));
+    }
+
+    private Mono<Optional<Integer>> probeDuration(Path file, String contentType, String checksumSha256) {
+        return Mono.fromCallable(() -> audioDurationProbe.probeDurationMs(file, contentType))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IOException.class, error -> {
+                    log.warn("Failed to probe sound duration checksum={}", checksumSha256, error);
+                    return Mono.just(Optional.<Long>empty());
+                })
+                .flatMap(duration -> {
+                    SoundProp.Ingest ingest = soundProp.ingest();
+                    Duration maxDuration = ingest.maxDuration();
+                    if (duration.isEmpty()) {
+                        if (maxDuration != null && ingest.rejectUnknownDuration()) {
+                            return Mono.<Optional<Integer>>error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sound duration could not be determined"));
+                        }
+                        return Mono.just(Optional.<Integer>empty());
+                    }
+                    if (maxDuration != null && duration.get() > maxDuration.toMillis()) {
+                        return Mono.<Optional<Integer>>error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sound exceeds duration limit"));
+                    }
+                    return Mono.just(Optional.of(duration.get().intValue()));
+                });
+    }
+
+    private Mono<String> storeOriginal(
+            String checksumSha256,
+            String contentType,
+            String filename,
+            Function<String, Mono<Void>> writer
+    ) {
+        String objectKey = blobKey(checksumSha256, extensionFrom(contentType, filename));
+        return contentBlobService.acquireOrStore(
+                ContentBlobKind.SOUND,
+                checksumSha256,
+                ORIGINAL_BLOB_VERSION,
+                objectKey,
+                writer.apply(objectKey).thenReturn(objectKey),
+                List.of(objectKey)
+        );
+    }
+
+    private Mono<Playback> storePlayback(SpooledUpload upload) {
+        if (!audioTranscoder.isEnabled()) {
+            return Mono.empty();
+        }
+        String playbackKey = blobKey(upload.checksumSha256() + "-playback", audioTranscoder.extension());
+        return contentBlobService.acquireOrStore(
+                        ContentBlobKind.SOUND,
+                        upload.checksumSha256(),
+                        PLAYBACK_BLOB_VERSION,
+                        playbackKey,
+                        Mono.usingWhen(
+                                audioTranscoder.transcode(upload.file()),
+                                rendition -> Mono.fromCallable(() -> Files.size(rendition))
+                                        .subscribeOn(Schedulers.boundedElastic())
+                                        .filter(size -> size > 0 && size < upload.sizeBytes())
+                                        .flatMap(size -> avatarStorageService.putObject(playbackKey, rendition, audioTranscoder.contentType())
+                                                .thenReturn(playbackKey)),
+                                rendition -> Mono.fromCallable(() -> Files.deleteIfExists(rendition))
+                                        .subscribeOn(Schedulers.boundedElastic())
+                                        .then()
+                        ),
+                        List.of(playbackKey)
+                )
+                .flatMap(key -> avatarStorageService.headObject(key)
+                        .map(metadata -> new Playback(key, audioTranscoder.contentType(), metadata.contentLength()))
+                        .onErrorResume(error -> contentBlobService.releaseAndDelete(
+                                        ContentBlobKind.SOUND,
+                                        upload.checksumSha256(),
+                                        PLAYBACK_BLOB_VERSION,
+                                        List.of(key)
+                                )
+                                .then(Mono.error(error))))
+                .onErrorResume(error -> {
+                    log.warn("Failed to produce playback rendition checksum={}", upload.checksumSha256(), error);
+                    return Mono.empty();
                 });
     }
 
+    private String blobKey(String name, String extension) {
+        return "sounds/blobs/" + name + "-" + UUID.randomUUID() + "." + extension;
+    }
+
     private Mono<RoomEntity> resolveMemberRoom(Long userId, String roomName) {
         if (roomName == null || roomName.isBlank()) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "roomName is required"));
@@ -243,22 +481,28 @@ public class SoundService {
                 .then();
     }
 
-    private Flux<SoundQueryRow> querySoundsForRoom(Long roomId) {
-        return databaseClient.sql("""
+    private Flux<SoundClipDto> querySoundsForRoom(Long roomId, SoundCursor cursor, Integer limit, String query) {
+        String sql = """
                 SELECT sc.id,
                        sc.owner_user_id,
                        sc.source_room_id,
                        sc.name,
                        sc.bucket,
                        sc.object_key,
+                       sc.playback_object_key,
+                       sc.playback_content_type,
+                       sc.playback_size_bytes,
                        sc.content_type,
                        sc.size_bytes,
+                       sc.checksum_sha256,
                        sc.duration_ms,
                        sc.created_at,
                        sc.updated_at,
                        sc.deleted_at,
+                       r.name AS source_room_name,
                        CASE WHEN sc.source_room_id = :roomId THEN 0 ELSE 1 END AS is_shared
                 FROM sound_clip sc
+                JOIN room r ON r.id = sc.source_room_id
                 WHERE sc.deleted_at IS NULL
                   AND (
                       sc.source_room_id = :roomId
@@ -270,44 +514,41 @@ public class SoundService {
                             AND ss.deleted_at IS NULL
                       )
                   )
-                ORDER BY sc.created_at DESC
-                """)
+                %s
+                ORDER BY sc.created_at DESC, sc.id DESC
+                %s
+                """;
+        return bindPage(databaseClient.sql(pageSql(sql, cursor, limit, query)), cursor, limit, query)
                 .bind("roomId", roomId)
-                .map((row, meta) -> new SoundQueryRow(
-                        SoundClipEntity.builder()
-                                .id(row.get("id", Long.class))
-                                .ownerUserId(row.get("owner_user_id", Long.class))
-                                .sourceRoomId(row.get("source_room_id", Long.class))
-                                .name(row.get("name", String.class))
-                                .bucket(row.get("bucket", String.class))
-                                .objectKey(row.get("object_key", String.class))
-                                .contentType(row.get("content_type", String.class))
-                                .sizeBytes(row.get("size_bytes", Long.class))
-                                .durationMs(row.get("duration_ms", Integer.class))
-                                .createdAt(row.get("created_at", Instant.class))
-                                .updatedAt(row.get("updated_at", Instant.class))
-                                .deletedAt(row.get("deleted_at", Instant.class))
-                                .build(),
+                .map((row, meta) -> toDto(
+                        mapSound(row),
+                        row.get("source_room_name", String.class),
                         row.get("is_shared", Number.class) != null && row.get("is_shared", Number.class).intValue() > 0
                 ))
                 .all();
     }
 
-    private Flux<SoundClipEntity> queryAvailableSoundsForRoom(Long userId, Long roomId) {
-        return databaseClient.sql("""
+    private Flux<SoundClipDto> queryAvailableSoundsForRoom(Long userId, Long roomId, SoundCursor cursor, Integer limit, String query) {
+        String sql = """
                 SELECT sc.id,
                        sc.owner_user_id,
                        sc.source_room_id,
                        sc.name,
                        sc.bucket,
                        sc.object_key,
+                       sc.playback_object_key,
+                       sc.playback_content_type,
+                       sc.playback_size_bytes,
                        sc.content_type,
                        sc.size_bytes,
+                       sc.checksum_sha256,
                        sc.duration_ms,
                        sc.created_at,
                        sc.updated_at,
-                       sc.deleted_at
+                       sc.deleted_at,
+                       r.name AS source_room_name
                 FROM sound_clip sc
+                JOIN room r ON r.id = sc.source_room_id
                 JOIN room_member rm
                   ON rm.room_id = sc.source_room_id
                  AND rm.user_id = :userId
@@ -320,27 +561,77 @@ public class SoundService {
                         AND ss.target_room_id = :roomId
                         AND ss.deleted_at IS NULL
                   )
-                ORDER BY sc.created_at DESC
-                """)
+                %s
+                ORDER BY sc.created_at DESC, sc.id DESC
+                %s
+                """;
+        return bindPage(databaseClient.sql(pageSql(sql, cursor, limit, query)), cursor, limit, query)
                 .bind("userId", userId)
                 .bind("roomId", roomId)
-                .map((row, meta) -> SoundClipEntity.builder()
-                        .id(row.get("id", Long.class))
-                        .ownerUserId(row.get("owner_user_id", Long.class))
-                        .sourceRoomId(row.get("source_room_id", Long.class))
-                        .name(row.get("name", String.class))
-                        .bucket(row.get("bucket", String.class))
-                        .objectKey(row.get("object_key", String.class))
-                        .contentType(row.get("content_type", String.class))
-                        .sizeBytes(row.get("size_bytes", Long.class))
-                        .durationMs(row.get("duration_ms", Integer.class))
-                        .createdAt(row.get("created_at", Instant.class))
-                        .updatedAt(row.get("updated_at", Instant.class))
-                        .deletedAt(row.get("deleted_at", Instant.class))
-                        .build())
+                .map((row, meta) -> toDto(mapSound(row), row.get("source_room_name", String.class), false))
                 .all();
     }
 
+    private String pageSql(String sql, SoundCursor cursor, Integer limit, String query) {
+        StringBuilder filters = new StringBuilder();
+        if (cursor != null) {
+            filters.append("""
+                    AND (
+                        sc.created_at < :cursorCreatedAt
+                        OR (sc.created_at = :cursorCreatedAt AND sc.id < :cursorId)
+                    )
+                    """);
+        }
+        if (query != null && !query.isBlank()) {
+            filters.append("AND sc.name LIKE :query\n");
+        }
+        return sql.formatted(filters, limit == null ? "" : "LIMIT :limit");
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindPage(
+            DatabaseClient.GenericExecuteSpec spec,
+            SoundCursor cursor,
+            Integer limit,
+            String query
+    ) {
+        if (cursor != null) {
+            spec = spec.bind("cursorCreatedAt", cursor.createdAt())
+                    .bind("cursorId", cursor.id());
+        }
+        if (query != null && !query.isBlank()) {
+            String escaped = query.trim()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+            spec = spec.bind("query", "%" + escaped + "%");
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec;
+    }
+
+    private SoundClipEntity mapSound(Row row) {
+        return SoundClipEntity.builder()
+                .id(row.get("id", Long.class))
+                .ownerUserId(row.get("owner_user_id", Long.class))
+                .sourceRoomId(row.get("source_room_id", Long.class))
+                .name(row.get("name", String.class))
+                .bucket(row.get("bucket", String.class))
+                .objectKey(row.get("object_key", String.class))
+                .playbackObjectKey(row.get("playback_object_key", String.class))
+                .playbackContentType(row.get("playback_content_type", String.class))
+                .playbackSizeBytes(row.get("playback_size_bytes", Long.class))
+                .contentType(row.get("content_type", String.class))
+                .sizeBytes(row.get("size_bytes", Long.class))
+                .checksumSha256(row.get("checksum_sha256", String.class))
+                .durationMs(row.get("duration_ms", Integer.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .updatedAt(row.get("updated_at", Instant.class))
+                .deletedAt(row.get("deleted_at", Instant.class))
+                .build();
+    }
+
     private Mono<Boolean> canPlayInRoom(Long soundId, Long roomId) {
         return databaseClient.sql("""
                 SELECT CASE
@@ -366,68 +657,77 @@ public class SoundService {
                 .defaultIfEmpty(false);
     }
 
-    private Mono<Void> sendPlayEvent(SoundClipEntity sound, Long userId, String roomName) {
-        return roomAccessService.checkUserCanJoin(userId, roomName)
-                .then(generateSoundUrl(sound)
-                        .flatMap(url -> Mono.fromRunnable(() -> {
-                            try {
-                                List<LivekitModels.ParticipantInfo> participants = roomServiceClient.listParticipants(roomName)
-                                        .execute()
-                                        .body();
-                                if (participants == null || participants.isEmpty()) {
-                                    return;
-                                }
-                                List<String> sids = participants.stream()
-                                        .map(LivekitModels.ParticipantInfo::getSid)
-                                        .toList();
-
-                                Map<String, Object> payload = new LinkedHashMap<>();
-                                payload.put("v", 1);
-                                payload.put("type", "sound.play");
-                                payload.put("soundId", sound.getId());
-                                payload.put("name", sound.getName());
-                                payload.put("url", url);
-                                payload.put("from", String.valueOf(userId));
-                                payload.put("ts", Instant.now().toEpochMilli());
-
-                                byte[] bytes = objectMapper.writeValueAsBytes(payload);
-                                roomServiceClient.sendData(roomName, bytes, LivekitModels.DataPacket.Kind.RELIABLE, sids)
-                                        .execute();
-                            } catch (IOException e) {
-                                throw new UncheckedIOException(e);
-                            }
-                        }).subscribeOn(Schedulers.boundedElastic()).then()));
+    private Mono<Void> sendPlayEvent(SoundClipEntity sound, Long userId, String roomName, long startedAt) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("v", 1);
+        payload.put("type", "sound.play");
+        payload.put("soundId", sound.getId());
+        payload.put("name", sound.getName());
+        payload.put("url", soundUrl(sound));
+        payload.put("from", String.valueOf(userId));
+        payload.put("ts", Instant.now().toEpochMilli());
+        return soundPlayBroadcaster.broadcast(roomName, userId, payload, startedAt);
     }
 
     private Mono<SoundClipDto> toDto(SoundClipEntity sound, boolean sharedToCurrentRoom) {
-        Mono<String> sourceRoomMono = roomRepository.findById(sound.getSourceRoomId())
+        return roomRepository.findById(sound.getSourceRoomId())
                 .map(RoomEntity::getName)
-                .defaultIfEmpty("");
-        Mono<String> soundUrlMono = generateSoundUrl(sound);
-        return sourceRoomMono.zipWith(soundUrlMono, (sourceRoomName, soundUrl) -> new SoundClipDto(
+                .defaultIfEmpty("")
+                .map(sourceRoomName -> toDto(sound, sourceRoomName, sharedToCurrentRoom));
+    }
+
+    private SoundClipDto toDto(SoundClipEntity sound, String sourceRoomName, boolean sharedToCurrentRoom) {
+        return new SoundClipDto(
                 sound.getId(),
                 sound.getOwnerUserId(),
-                sourceRoomName,
+                sourceRoomName == null ? "" : sourceRoomName,
                 sharedToCurrentRoom,
                 sound.getName(),
-                sound.getContentType(),
-                sound.getSizeBytes(),
+                sound.getPlaybackObjectKey() == null ? sound.getContentType() : sound.getPlaybackContentType(),
+                sound.getPlaybackObjectKey() == null ? sound.getSizeBytes() : sound.getPlaybackSizeBytes(),
                 sound.getDurationMs(),
-                soundUrl,
-                sound.getCreatedAt()
-        ));
+                soundUrl(sound),
+                sound.getCreatedAt(),
+                formatCursor(sound.getCreatedAt(), sound.getId())
+        );
     }
 
-    private Mono<String> generateSoundUrl(SoundClipEntity sound) {
-        return Mono.fromCallable(() -> avatarStorageService.generatePresignedGetUrl(
-                        sound.getObjectKey(),
-                        Duration.ofSeconds(Math.max(60, avatarProp.presignTtlSeconds()))
-                ))
-                .subscribeOn(Schedulers.boundedElastic())
-                .onErrorResume(error -> {
-                    log.warn("Failed to generate presigned sound URL soundId={}", sound.getId(), error);
-                    return Mono.just("/api/sounds/content/" + sound.getId());
-                });
+    private String soundUrl(SoundClipEntity sound) {
+        try {
+            return avatarStorageService.generatePresignedGetUrl(
+                    sound.getPlaybackObjectKey() == null ? sound.getObjectKey() : sound.getPlaybackObjectKey(),
+                    Duration.ofSeconds(Math.max(60, avatarProp.presignTtlSeconds()))
+            );
+        } catch (RuntimeException e) {
+            log.warn("Failed to generate presigned sound URL soundId={}", sound.getId(), e);
+            return "/api/sounds/content/" + sound.getId();
+        }
+    }
+
+    private Integer normalizeLimit(Integer limit) {
+        return limit == null ? null : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private String formatCursor(Instant createdAt, Long id) {
+        return createdAt == null ? null : createdAt.toEpochMilli() + ":" + id;
+    }
+
+    private SoundCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return new SoundCursor(
+                    Instant.ofEpochMilli(Long.parseLong(cursor.substring(0, separator))),
+                    Long.parseLong(cursor.substring(separator + 1))
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     private Mono<Void> ensureUserExists(Long userId) {
@@ -437,19 +737,29 @@ public class SoundService {
                         : Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
     }
 
-    private Mono<Void> validateFile(byte[] bytes, String contentType) {
-        if (bytes == null || bytes.length == 0) {
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty"));
-        }
+    private Mono<Void> validateContentType(String contentType) {
         if (!ALLOWED_CONTENT_TYPES.contains(contentType)) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported content type"));
         }
-        if (bytes.length > avatarProp.maxUploadBytes()) {
-            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sound exceeds size limit"));
-        }
         return Mono.empty();
     }
 
+    private Mono<Void> validateUploadedObject(ObjectMetadata metadata, String contentType) {
+        return validateContentType(contentType)
+                .then(Mono.defer(() -> {
+                    if (metadata.contentLength() <= 0) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is empty"));
+                    }
+                    if (metadata.contentLength() > avatarProp.maxUploadBytes()) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Sound exceeds size limit"));
+                    }
+                    if (metadata.checksumSha256() == null) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload checksum is missing"));
+                    }
+                    return Mono.<Void>empty();
+                }));
+    }
+
     private String normalizeContentType(String raw) {
         String value = raw == null ? "" : raw.toLowerCase(Locale.ROOT).trim();
         if (value.equals("audio/mp3")) {
@@ -488,12 +798,16 @@ public class SoundService {
     }
 
     public record SoundContent(
-            byte[] bytes,
-            String contentType
+            String objectKey,
+            String contentType,
+            String checksumSha256
     ) {}
 
-    private record SoundQueryRow(
-            SoundClipEntity sound,
-            boolean shared
+    private record SoundCursor(Instant createdAt, Long id) {}
+
+    private record Playback(
+            String objectKey,
+            String contentType,
+            Long sizeBytes
     ) {}
 }
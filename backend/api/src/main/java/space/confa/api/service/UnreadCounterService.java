@@ -0,0 +1,265 @@
+package space.confa.api.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import space.confa.api.configuration.properties.MessengerProp;
+import space.confa.api.model.domain.ChannelUserKey;
+import space.confa.api.model.dto.response.UnreadCounterRebuildDto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final String UNREAD_COUNT_SQL = """
+            (
+                SELECT COUNT(*)
+                FROM message m
+                WHERE m.channel_id = %1$s.channel_id
+                  AND m.deleted_at IS NULL
+                  AND m.sender_user_id IS NOT NULL
+                  AND m.sender_user_id <> %1$s.user_id
+                  AND (
+                      crs.last_read_message_id IS NULL
+                      OR m.id > crs.last_read_message_id
+                  )
+            )
+            """;
+
+    private static final String REBUILD_SQL = """
+            SELECT r.channel_id,
+                   r.user_id,
+                   cuc.unread_count AS current_count,
+                   %3$s AS unread_count
+            FROM (
+                SELECT c.id AS channel_id, wm.user_id
+                FROM channel c
+                JOIN workspace_member wm ON wm.workspace_id = c.workspace_id
+                WHERE %1$s
+                UNION
+                SELECT cm.channel_id, cm.user_id
+                FROM channel_member cm
+                JOIN channel c ON c.id = cm.channel_id
+                WHERE %2$s
+            ) r
+            LEFT JOIN channel_read_state crs
+                   ON crs.channel_id = r.channel_id
+                  AND crs.user_id = r.user_id
+            LEFT JOIN channel_unread_counter cuc
+                   ON cuc.channel_id = r.channel_id
+                  AND cuc.user_id = r.user_id
+            """;
+
+    private static final int RECOMPUTE_ATTEMPTS = 3;
+    private static final String REPAIR_LEASE_KEY = "messenger:unread-counters:repair-lease";
+
+    private final DatabaseClient databaseClient;
+    private final ReactiveStringRedisTemplate redis;
+    private final MessengerProp messengerProp;
+
+    public Mono<Void> incrementForNewMessage(Long channelId, Long senderUserId) {
+        return databaseClient.sql("""
+                        INSERT INTO channel_unread_counter (channel_id, user_id, unread_count)
+                        SELECT :channelId, r.user_id, 1
+                        FROM (
+                            SELECT wm.user_id
+                            FROM channel c
+                            JOIN workspace_member wm ON wm.workspace_id = c.workspace_id
+                            WHERE c.id = :channelId
+                            UNION
+                            SELECT cm.user_id
+                            FROM channel_member cm
+                            WHERE cm.channel_id = :channelId
+                        ) r
+                        WHERE r.user_id <> :senderUserId
+                        ON DUPLICATE KEY UPDATE unread_count = unread_count + 1
+                        """)
+                .bind("channelId", channelId)
+                .bind("senderUserId", senderUserId)
+                .then();
+    }
+
+    public Mono<Void> decrementForDeletedMessage(Long channelId, Long messageId, Long senderUserId) {
+        return databaseClient.sql("""
+                        UPDATE channel_unread_counter cuc
+                        LEFT JOIN channel_read_state crs
+                               ON crs.channel_id = cuc.channel_id
+                              AND crs.user_id = cuc.user_id
+                        SET cuc.unread_count = cuc.unread_count - 1
+                        WHERE cuc.channel_id = :channelId
+                          AND cuc.user_id <> :senderUserId
+                          AND cuc.unread_count > 0
+                          AND (
+                              crs.last_read_message_id IS NULL
+                              OR crs.last_read_message_id < :messageId
+                          )
+                        """)
+                .bind("channelId", channelId)
+                .bind("messageId", messageId)
+                .bind("senderUserId", senderUserId)
+                .then();
+    }
+
+    /**
+     * Recounts from one consistent, non-locking read and writes each result only if the counter still holds the
+     * value seen by that read. A counter moved by a concurrent writer is recounted again, a few times at most; the
+     * repair job settles whatever drift is left.
+     */
+    public Mono<Void> recompute(List<ChannelUserKey> keys) {
+        return recompute(keys, RECOMPUTE_ATTEMPTS);
+    }
+
+    private Mono<Void> recompute(List<ChannelUserKey> keys, int attempts) {
+        if (keys.isEmpty() || attempts == 0) {
+            return Mono.empty();
+        }
+        String placeholders = String.join(",", Collections.nCopies(keys.size(), "(?, ?)"));
+        String sql = """
+                SELECT crs.channel_id,
+                       crs.user_id,
+                       cuc.unread_count AS current_count,
+                       %s AS unread_count
+                FROM channel_read_state crs
+                LEFT JOIN channel_unread_counter cuc
+                       ON cuc.channel_id = crs.channel_id
+                      AND cuc.user_id = crs.user_id
+                WHERE (crs.channel_id, crs.user_id) IN (%s)
+                """.formatted(UNREAD_COUNT_SQL.formatted("crs"), placeholders);
+
+        return apply(bindKeys(databaseClient.sql(sql), keys))
+                .flatMap(contended -> recompute(contended, attempts - 1));
+    }
+
+    public Mono<Void> rebuildForChannel(Long channelId) {
+        return apply(databaseClient.sql(REBUILD_SQL.formatted("c.id = :channelId", "c.id = :channelId", UNREAD_COUNT_SQL.formatted("r")))
+                        .bind("channelId", channelId))
+                .then(databaseClient.sql("""
+                                DELETE cuc
+                                FROM channel_unread_counter cuc
+                                JOIN channel c ON c.id = cuc.channel_id
+                                WHERE cuc.channel_id = :channelId
+                                  AND NOT EXISTS (
+                                      SELECT 1
+                                      FROM workspace_member wm
+                                      WHERE wm.workspace_id = c.workspace_id
+                                        AND wm.user_id = cuc.user_id
+                                  )
+                                  AND NOT EXISTS (
+                                      SELECT 1
+                                      FROM channel_member cm
+                                      WHERE cm.channel_id = cuc.channel_id
+                                        AND cm.user_id = cuc.user_id
+                                  )
+                                """)
+                        .bind("channelId", channelId)
+                        .then());
+    }
+
+    public Mono<Void> rebuildForWorkspaceMember(Long workspaceId, Long userId) {
+        return apply(databaseClient.sql(REBUILD_SQL.formatted(
+                                "c.workspace_id = :workspaceId AND wm.user_id = :userId",
+                                "c.workspace_id = :workspaceId AND cm.user_id = :userId",
+                                UNREAD_COUNT_SQL.formatted("r")
+                        ))
+                        .bind("workspaceId", workspaceId)
+                        .bind("userId", userId))
+                .then();
+    }
+
+    public Mono<Void> deleteForUser(Long userId) {
+        return databaseClient.sql("DELETE FROM channel_unread_counter WHERE user_id = :userId")
+                .bind("userId", userId)
+                .then();
+    }
+
+    public Mono<UnreadCounterRebuildDto> rebuildAll() {
+        return databaseClient.sql("""
+                        SELECT id
+                        FROM channel
+                        ORDER BY id
+                        """)
+                .map((row, metadata) -> row.get("id", Long.class))
+                .all()
+                .concatMap(channelId -> rebuildForChannel(channelId).thenReturn(channelId))
+                .count()
+                .map(UnreadCounterRebuildDto::new);
+    }
+
+    @Scheduled(cron = "${messenger.unread-counters.repair-cron}")
+    public Mono<Void> repairCounters() {
+        return redis.opsForValue()
+                .setIfAbsent(REPAIR_LEASE_KEY, UUID.randomUUID().toString(), messengerProp.unreadCounters().repairLease())
+                .filter(Boolean.TRUE::equals)
+                .flatMap(acquired -> rebuildAll())
+                .doOnNext(result -> log.info("Rebuilt unread counters for {} channels", result.channelCount()))
+                .onErrorResume(e -> {
+                    log.warn("Failed to rebuild unread counters", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Writes every recount that differs from the stored counter and emits the keys whose counter changed in between.
+     */
+    private Mono<List<ChannelUserKey>> apply(DatabaseClient.GenericExecuteSpec query) {
+        return query.map((row, metadata) -> new Recount(
+                        row.get("channel_id", Long.class),
+                        row.get("user_id", Long.class),
+                        row.get("current_count", Long.class),
+                        row.get("unread_count", Long.class)
+                ))
+                .all()
+                .filter(recount -> !recount.unreadCount().equals(recount.currentCount()))
+                .concatMap(recount -> write(recount)
+                        .filter(updated -> updated == 0 && recount.currentCount() != null)
+                        .map(ignored -> new ChannelUserKey(recount.channelId(), recount.userId())))
+                .collectList();
+    }
+
+    private Mono<Long> write(Recount recount) {
+        if (recount.currentCount() == null) {
+            return databaseClient.sql("""
+                            INSERT IGNORE INTO channel_unread_counter (channel_id, user_id, unread_count)
+                            VALUES (:channelId, :userId, :unreadCount)
+                            """)
+                    .bind("channelId", recount.channelId())
+                    .bind("userId", recount.userId())
+                    .bind("unreadCount", recount.unreadCount())
+                    .fetch()
+                    .rowsUpdated();
+        }
+        return databaseClient.sql("""
+                        UPDATE channel_unread_counter
+                        SET unread_count = :unreadCount
+                        WHERE channel_id = :channelId
+                          AND user_id = :userId
+                          AND unread_count = :currentCount
+                        """)
+                .bind("unreadCount", recount.unreadCount())
+                .bind("channelId", recount.channelId())
+                .bind("userId", recount.userId())
+                .bind("currentCount", recount.currentCount())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindKeys(DatabaseClient.GenericExecuteSpec spec, List<ChannelUserKey> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            spec = spec.bind(i * 2, keys.get(i).channelId())
+                    .bind(i * 2 + 1, keys.get(i).userId());
+        }
+        return spec;
+    }
+
+    private record Recount(Long channelId, Long userId, Long currentCount, Long unreadCount) {}
+}
@@ -34,6 +34,8 @@ public class UserService implements ReactiveUserDetailsService {
     private final PasswordEncoder passwordEncoder;
     private final JWTService jwtService;
     private final UserRepository userRepository;
+    private final MessengerAccessService messengerAccessService;
+    private final UnreadCounterService unreadCounterService;
 
     @Value("${security.init-bootstrap.service-key}")
     private String serviceKey;
@@ -79,7 +81,7 @@ public class UserService implements ReactiveUserDetailsService {
 
     public Mono<UserDto> blockUser(Long id) {
         return userRepository.blockById(id)
-                .flatMap(ignored -> userRepository.findById(id))
+                .flatMap(ignored -> messengerAccessService.revokeUser(id).then(userRepository.findById(id)))
                 .map(UserMapper::mapToDto);
     }
 
@@ -90,7 +92,9 @@ public class UserService implements ReactiveUserDetailsService {
     }
 
     public Mono<Void> deleteUser(Long id) {
-        return userRepository.deleteById(id);
+        return unreadCounterService.deleteForUser(id)
+                .then(userRepository.deleteById(id))
+                .then(messengerAccessService.revokeUser(id));
     }
 
     public Mono<UserDetails> findById(Long id) {
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import space.confa.api.configuration.properties.AppProp;
@@ -26,6 +27,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.HexFormat;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -39,7 +41,11 @@ public class WorkspaceInviteService {
     private final WorkspaceRepository workspaceRepository;
     private final WorkspaceInviteRepository workspaceInviteRepository;
     private final DatabaseClient databaseClient;
+    private final UnreadCounterService unreadCounterService;
+    private final MessengerVersionService messengerVersionService;
+    private final MessengerAccessService messengerAccessService;
     private final AppProp appProp;
+    private final TransactionalOperator transactionalOperator;
 
     @Transactional
     public Mono<WorkspaceInviteDto> createInvite(Long userId, Long workspaceId, CreateInviteDto dto) {
@@ -86,10 +92,16 @@ public class WorkspaceInviteService {
                 });
     }
 
-    @Transactional
     public Mono<WorkspaceDto> acceptInvite(Long userId, AcceptInviteDto dto) {
         String tokenHash = hashToken(dto.token());
 
+        return transactionalOperator.transactional(joinWorkspace(userId, tokenHash))
+                .flatMap(workspace -> messengerVersionService.usersChanged(List.of(userId))
+                        .then(Mono.fromRunnable(() -> messengerAccessService.invalidateUser(userId)))
+                        .thenReturn(workspace));
+    }
+
+    private Mono<WorkspaceDto> joinWorkspace(Long userId, String tokenHash) {
         return workspaceInviteRepository.findByTokenHash(tokenHash)
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Invite not found")))
                 .flatMap(invite -> {
@@ -109,6 +121,7 @@ public class WorkspaceInviteService {
                             .bind("workspaceId", invite.getWorkspaceId())
                             .bind("userId", userId)
                             .then()
+                            .then(unreadCounterService.rebuildForWorkspaceMember(invite.getWorkspaceId(), userId))
                             .then(workspaceInviteRepository.incrementUsage(invite.getId())
                                     .onErrorResume(e -> {
                                         log.warn("Failed to increment invite usage", e);
@@ -0,0 +1,350 @@
+package space.confa.api.service.audio;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+@Component
+public class AudioDurationProbe {
+
+    private static final int MP3_SYNC_SEARCH_BYTES = 64 * 1024;
+    private static final int OGG_TAIL_BYTES = 64 * 1024;
+    private static final long EBML_SCAN_LIMIT = 1024 * 1024;
+    private static final int WEBM_TAIL_BYTES = 256 * 1024;
+
+    /** Leading and trailing byte counts that {@link #probeDurationMs} reads from a file. */
+    public static final long HEAD_BYTES = EBML_SCAN_LIMIT + MP3_SYNC_SEARCH_BYTES;
+    public static final long TAIL_BYTES = Math.max(OGG_TAIL_BYTES, WEBM_TAIL_BYTES);
+
+    private static final int[] MP3_BITRATES_V1 = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MP3_BITRATES_V2 = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[] MP3_SAMPLE_RATES_V1 = {44100, 48000, 32000};
+
+    private static final long EBML_SEGMENT = 0x18538067L;
+    private static final long EBML_INFO = 0x1549A966L;
+    private static final long EBML_CLUSTER = 0x1F43B675L;
+    private static final long EBML_TIMECODE_SCALE = 0x2AD7B1L;
+    private static final long EBML_DURATION = 0x4489L;
+    private static final long EBML_CLUSTER_TIMECODE = 0xE7L;
+    private static final long EBML_SIMPLE_BLOCK = 0xA3L;
+    private static final long EBML_BLOCK_GROUP = 0xA0L;
+    private static final long EBML_BLOCK = 0xA1L;
+
+    public Optional<Long> probeDurationMs(Path file, String contentType) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Long durationMs = switch (contentType) {
+                case "audio/wav" -> wavDuration(channel);
+                case "audio/ogg" -> oggDuration(channel);
+                case "audio/mpeg" -> mp3Duration(channel);
+                case "audio/webm" -> webmDuration(channel);
+                default -> null;
+            };
+            return Optional.ofNullable(durationMs).filter(value -> value > 0);
+        }
+    }
+
+    private Long wavDuration(FileChannel channel) throws IOException {
+        ByteBuffer header = read(channel, 0, 12, ByteOrder.LITTLE_ENDIAN);
+        if (header.remaining() < 12 || !ascii(header, 0, 4).equals("RIFF") || !ascii(header, 8, 4).equals("WAVE")) {
+            return null;
+        }
+        long size = channel.size();
+        long position = 12;
+        long byteRate = 0;
+        while (position + 8 <= size) {
+            ByteBuffer chunk = read(channel, position, 8, ByteOrder.LITTLE_ENDIAN);
+            String id = ascii(chunk, 0, 4);
+            long length = Integer.toUnsignedLong(chunk.getInt(4));
+            if (id.equals("fmt ")) {
+                ByteBuffer format = read(channel, position + 8, 16, ByteOrder.LITTLE_ENDIAN);
+                if (format.remaining() < 16) {
+                    return null;
+                }
+                byteRate = Integer.toUnsignedLong(format.getInt(8));
+            } else if (id.equals("data")) {
+                long dataLength = Math.min(length, size - position - 8);
+                return byteRate == 0 ? null : dataLength * 1000 / byteRate;
+            }
+            position += 8 + length + (length & 1);
+        }
+        return null;
+    }
+
+    private Long oggDuration(FileChannel channel) throws IOException {
+        ByteBuffer first = read(channel, 0, 27 + 255 + 20, ByteOrder.LITTLE_ENDIAN);
+        if (first.remaining() < 28 || !ascii(first, 0, 4).equals("OggS")) {
+            return null;
+        }
+        int packetStart = 27 + (first.get(26) & 0xFF);
+        if (first.remaining() < packetStart + 16) {
+            return null;
+        }
+        long sampleRate;
+        long preSkip = 0;
+        if (first.get(packetStart) == 1 && ascii(first, packetStart + 1, 6).equals("vorbis")) {
+            sampleRate = Integer.toUnsignedLong(first.getInt(packetStart + 12));
+        } else if (ascii(first, packetStart, 8).equals("OpusHead")) {
+            sampleRate = 48000;
+            preSkip = Short.toUnsignedInt(first.getShort(packetStart + 10));
+        } else {
+            return null;
+        }
+
+        long size = channel.size();
+        int tailLength = (int) Math.min(size, OGG_TAIL_BYTES);
+        ByteBuffer tail = read(channel, size - tailLength, tailLength, ByteOrder.LITTLE_ENDIAN);
+        for (int i = tail.remaining() - 14; i >= 0; i--) {
+            if (tail.get(i) == 'O' && tail.get(i + 1) == 'g' && tail.get(i + 2) == 'g' && tail.get(i + 3) == 'S') {
+                long granule = tail.getLong(i + 6);
+                return sampleRate == 0 || granule <= preSkip ? null : (granule - preSkip) * 1000 / sampleRate;
+            }
+        }
+        return null;
+    }
+
+    private Long mp3Duration(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer id3 = read(channel, 0, 10, ByteOrder.BIG_ENDIAN);
+        if (id3.remaining() == 10 && ascii(id3, 0, 3).equals("ID3")) {
+            long tagSize = ((id3.get(6) & 0x7F) << 21) | ((id3.get(7) & 0x7F) << 14) | ((id3.get(8) & 0x7F) << 7) | (id3.get(9) & 0x7F);
+            offset = 10 + tagSize + ((id3.get(5) & 0x10) != 0 ? 10 : 0);
+        }
+
+        ByteBuffer window = read(channel, offset, MP3_SYNC_SEARCH_BYTES, ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i + 4 <= window.remaining(); i++) {
+            Mp3Frame frame = parseMp3Header(window, i);
+            if (frame == null) {
+                continue;
+            }
+            long frameOffset = offset + i;
+            Long vbrFrames = vbrFrameCount(channel, frameOffset, frame);
+            if (vbrFrames != null) {
+                return vbrFrames * frame.samplesPerFrame() * 1000 / frame.sampleRate();
+            }
+            return (size - frameOffset) * 8 / frame.bitrateKbps();
+        }
+        return null;
+    }
+
+    private Mp3Frame parseMp3Header(ByteBuffer buffer, int index) {
+        int b1 = buffer.get(index + 1) & 0xFF;
+        int b2 = buffer.get(index + 2) & 0xFF;
+        int b3 = buffer.get(index + 3) & 0xFF;
+        if ((buffer.get(index) & 0xFF) != 0xFF || (b1 & 0xE0) != 0xE0) {
+            return null;
+        }
+        int version = (b1 >> 3) & 0x03;
+        int layer = (b1 >> 1) & 0x03;
+        int bitrateIndex = (b2 >> 4) & 0x0F;
+        int sampleRateIndex = (b2 >> 2) & 0x03;
+        if (version == 1 || layer != 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return null;
+        }
+        boolean mpeg1 = version == 3;
+        int sampleRate = MP3_SAMPLE_RATES_V1[sampleRateIndex] / (mpeg1 ? 1 : version == 2 ? 2 : 4);
+        int bitrate = (mpeg1 ? MP3_BITRATES_V1 : MP3_BITRATES_V2)[bitrateIndex];
+        boolean mono = ((b3 >> 6) & 0x03) == 3;
+        int sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+        return new Mp3Frame(sampleRate, bitrate, mpeg1 ? 1152 : 576, sideInfo);
+    }
+
+    private Long vbrFrameCount(FileChannel channel, long frameOffset, Mp3Frame frame) throws IOException {
+        ByteBuffer xing = read(channel, frameOffset + 4 + frame.sideInfoBytes(), 12, ByteOrder.BIG_ENDIAN);
+        if (xing.remaining() == 12) {
+            String tag = ascii(xing, 0, 4);
+            if ((tag.equals("Xing") || tag.equals("Info")) && (xing.getInt(4) & 0x01) != 0) {
+                return Integer.toUnsignedLong(xing.getInt(8));
+            }
+        }
+        ByteBuffer vbri = read(channel, frameOffset + 36, 18, ByteOrder.BIG_ENDIAN);
+        if (vbri.remaining() == 18 && ascii(vbri, 0, 4).equals("VBRI")) {
+            return Integer.toUnsignedLong(vbri.getInt(14));
+        }
+        return null;
+    }
+
+    /**
+     * Reads the duration from the segment Info. Live recordings such as MediaRecorder output carry no Duration, so
+     * the end of the last cluster in the tail of the file is used instead.
+     */
+    private Long webmDuration(FileChannel channel) throws IOException {
+        long size = Math.min(channel.size(), EBML_SCAN_LIMIT);
+        long position = 0;
+        while (position < size) {
+            EbmlElement element = readEbmlElement(channel, position);
+            if (element == null) {
+                return null;
+            }
+            if (element.id() == EBML_SEGMENT) {
+                position = element.dataOffset();
+                continue;
+            }
+            if (element.id() == EBML_CLUSTER) {
+                return webmClusterDuration(channel, 1_000_000);
+            }
+            if (element.id() == EBML_INFO) {
+                return webmInfoDuration(channel, element);
+            }
+            if (element.size() < 0) {
+                return null;
+            }
+            position = element.dataOffset() + element.size();
+        }
+        return null;
+    }
+
+    private Long webmInfoDuration(FileChannel channel, EbmlElement info) throws IOException {
+        long timecodeScale = 1_000_000;
+        Double duration = null;
+        long position = info.dataOffset();
+        long end = info.size() < 0 ? info.dataOffset() + 256 : info.dataOffset() + info.size();
+        while (position < end) {
+            EbmlElement element = readEbmlElement(channel, position);
+            if (element == null || element.size() < 0) {
+                break;
+            }
+            ByteBuffer value = read(channel, element.dataOffset(), (int) Math.min(element.size(), 8), ByteOrder.BIG_ENDIAN);
+            if (element.id() == EBML_TIMECODE_SCALE) {
+                timecodeScale = readUnsigned(value);
+            } else if (element.id() == EBML_DURATION) {
+                duration = switch (value.remaining()) {
+                    case 4 -> (double) value.getFloat(0);
+                    case 8 -> value.getDouble(0);
+                    default -> null;
+                };
+            }
+            position = element.dataOffset() + element.size();
+        }
+        return duration == null
+                ? webmClusterDuration(channel, timecodeScale)
+                : Math.round(duration * timecodeScale / 1_000_000d);
+    }
+
+    private Long webmClusterDuration(FileChannel channel, long timecodeScale) throws IOException {
+        long size = channel.size();
+        int tailLength = (int) Math.min(size, WEBM_TAIL_BYTES);
+        long tailStart = size - tailLength;
+        ByteBuffer tail = read(channel, tailStart, tailLength, ByteOrder.BIG_ENDIAN);
+        for (int i = tail.remaining() - 4; i >= 0; i--) {
+            if (tail.getInt(i) != (int) EBML_CLUSTER) {
+                continue;
+            }
+            EbmlElement cluster = readEbmlElement(channel, tailStart + i);
+            Long lastTimecode = cluster == null ? null : lastBlockTimecode(channel, cluster, size);
+            if (lastTimecode != null) {
+                return lastTimecode * timecodeScale / 1_000_000;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cluster timecode plus the largest relative timecode of its blocks, or null when the bytes at the
+     * cluster position do not start with a cluster Timecode.
+     */
+    private Long lastBlockTimecode(FileChannel channel, EbmlElement cluster, long fileSize) throws IOException {
+        long end = cluster.size() < 0 ? fileSize : Math.min(fileSize, cluster.dataOffset() + cluster.size());
+        EbmlElement first = readEbmlElement(channel, cluster.dataOffset());
+        if (first == null || first.id() != EBML_CLUSTER_TIMECODE || first.size() < 1 || first.size() > 8) {
+            return null;
+        }
+        long clusterTimecode = readUnsigned(read(channel, first.dataOffset(), (int) first.size(), ByteOrder.BIG_ENDIAN));
+        long lastRelative = 0;
+        long position = first.dataOffset() + first.size();
+        while (position < end) {
+            EbmlElement element = readEbmlElement(channel, position);
+            if (element == null || element.size() < 0) {
+                break;
+            }
+            if (element.id() == EBML_BLOCK_GROUP) {
+                EbmlElement block = readEbmlElement(channel, element.dataOffset());
+                if (block != null && block.id() == EBML_BLOCK) {
+                    lastRelative = Math.max(lastRelative, blockRelativeTimecode(channel, block));
+                }
+            } else if (element.id() == EBML_SIMPLE_BLOCK) {
+                lastRelative = Math.max(lastRelative, blockRelativeTimecode(channel, element));
+            }
+            position = element.dataOffset() + element.size();
+        }
+        return clusterTimecode + lastRelative;
+    }
+
+    private long blockRelativeTimecode(FileChannel channel, EbmlElement block) throws IOException {
+        ByteBuffer header = read(channel, block.dataOffset(), 10, ByteOrder.BIG_ENDIAN);
+        int trackLength = header.remaining() == 0 ? 0 : vintLength(header.get(0));
+        if (trackLength == 0 || header.remaining() < trackLength + 2) {
+            return 0;
+        }
+        return header.getShort(trackLength);
+    }
+
+    private EbmlElement readEbmlElement(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = read(channel, position, 12, ByteOrder.BIG_ENDIAN);
+        if (header.remaining() < 2) {
+            return null;
+        }
+        int idLength = vintLength(header.get(0));
+        if (idLength == 0 || idLength > 4 || header.remaining() < idLength + 1) {
+            return null;
+        }
+        long id = 0;
+        for (int i = 0; i < idLength; i++) {
+            id = (id << 8) | (header.get(i) & 0xFF);
+        }
+        int sizeLength = vintLength(header.get(idLength));
+        if (sizeLength == 0 || header.remaining() < idLength + sizeLength) {
+            return null;
+        }
+        long size = header.get(idLength) & (0xFF >> sizeLength);
+        boolean unknown = size == (0xFF >> sizeLength);
+        for (int i = 1; i < sizeLength; i++) {
+            int next = header.get(idLength + i) & 0xFF;
+            unknown &= next == 0xFF;
+            size = (size << 8) | next;
+        }
+        return new EbmlElement(id, position + idLength + sizeLength, unknown ? -1 : size);
+    }
+
+    private int vintLength(byte first) {
+        int value = first & 0xFF;
+        return value == 0 ? 0 : Integer.numberOfLeadingZeros(value) - 23;
+    }
+
+    private long readUnsigned(ByteBuffer value) {
+        long result = 0;
+        for (int i = 0; i < value.remaining(); i++) {
+            result = (result << 8) | (value.get(i) & 0xFF);
+        }
+        return result;
+    }
+
+    private ByteBuffer read(FileChannel channel, long position, int length, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(order);
+        int read;
+        do {
+            read = channel.read(buffer, position + buffer.position());
+        } while (read > 0 && buffer.hasRemaining());
+        return buffer.flip();
+    }
+
+    private String ascii(ByteBuffer buffer, int index, int length) {
+        if (buffer.remaining() < index + length) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private record Mp3Frame(int sampleRate, int bitrateKbps, int samplesPerFrame, int sideInfoBytes) {}
+
+    private record EbmlElement(long id, long dataOffset, long size) {}
+}
@@ -0,0 +1,84 @@
+package space.confa.api.service.audio;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import space.confa.api.configuration.properties.SoundProp;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class AudioTranscoder {
+
+    private final SoundProp.Transcode props;
+    private final Scheduler scheduler;
+
+    public AudioTranscoder(SoundProp soundProp) {
+        this.props = soundProp.ingest().transcode();
+        this.scheduler = Schedulers.newBoundedElastic(
+                props.threads(),
+                props.queueCapacity(),
+                "sound-transcode"
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    public boolean isEnabled() {
+        return props.enabled() && props.command() != null && !props.command().isEmpty();
+    }
+
+    public String contentType() {
+        return props.contentType();
+    }
+
+    public String extension() {
+        return props.extension();
+    }
+
+    public Mono<Path> transcode(Path input) {
+        return Mono.fromCallable(() -> run(input))
+                .subscribeOn(scheduler)
+                .onErrorResume(RejectedExecutionException.class, e -> {
+                    log.warn("Sound transcode queue is full, storing original only");
+                    return Mono.empty();
+                });
+    }
+
+    private Path run(Path input) throws IOException, InterruptedException {
+        Path output = Files.createTempFile("confa-sound-", "." + props.extension());
+        List<String> command = props.command().stream()
+                .map(part -> part.replace("{input}", input.toString()).replace("{output}", output.toString()))
+                .toList();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            if (!process.waitFor(props.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Transcode timed out after " + props.timeout());
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("Transcode exited with code " + process.exitValue());
+            }
+            return output;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(output);
+            throw e;
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package space.confa.api.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import space.confa.api.configuration.properties.MessengerProp;
+import space.confa.api.model.dto.response.MessageDto;
+import space.confa.api.model.dto.response.MessageReactionDto;
+import space.confa.api.model.dto.response.MessengerEventDto;
+import space.confa.api.service.event.MessengerEventBus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class ChannelTailCache {
+
+    public static final int TAIL_SIZE = 100;
+
+    private final MessengerEventBus messengerEventBus;
+    private final long maxAgeNanos;
+    private final Cache<Long, ChannelSlot> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ChannelTailCache(MessengerEventBus messengerEventBus, MessengerProp messengerProp, MeterRegistry meterRegistry) {
+        MessengerProp.TailCache props = messengerProp.tailCache();
+        this.messengerEventBus = messengerEventBus;
+        this.maxAgeNanos = props.maxAge().toNanos();
+        this.hits = Counter.builder("messenger.tail_cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("messenger.tail_cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("messenger.tail_cache.evictions").register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(props.maxWeightBytes())
+                .weigher((Long channelId, ChannelSlot slot) -> slot.weight())
+                .expireAfterAccess(props.idleTtl())
+                .removalListener((Long channelId, ChannelSlot slot, RemovalCause cause) -> {
+                    if (slot != null && cause != RemovalCause.REPLACED) {
+                        slot.close();
+                    }
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .build();
+        Gauge.builder("messenger.tail_cache.channels", cache, Cache::estimatedSize).register(meterRegistry);
+        Gauge.builder("messenger.tail_cache.weight_bytes", cache, c -> c.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .register(meterRegistry);
+    }
+
+    public Mono<List<MessageDto>> newestPage(
+            Long channelId,
+            Long viewerUserId,
+            int limit,
+            Supplier<Mono<List<CachedMessage>>> loader
+    ) {
+        return Mono.defer(() -> {
+            ChannelSlot slot = cache.asMap().computeIfAbsent(channelId, this::openSlot);
+            List<CachedMessage> tail = slot.freshTail(maxAgeNanos);
+            if (tail != null) {
+                hits.increment();
+                return Mono.just(render(tail, viewerUserId, limit));
+            }
+
+            misses.increment();
+            long generation = slot.generation();
+            return loader.get()
+                    .map(loaded -> {
+                        if (slot.fill(loaded, generation)) {
+                            cache.asMap().replace(channelId, slot, slot);
+                        }
+                        return render(loaded, viewerUserId, limit);
+                    });
+        });
+    }
+
+    /**
+     * Identifies the tail a newest page would be served from. It changes whenever that tail is dropped or patched,
+     * so it belongs in any validator minted for such a page.
+     */
+    public String version(Long channelId) {
+        ChannelSlot slot = cache.asMap().get(channelId);
+        return slot == null ? "-" : slot.version();
+    }
+
+    public boolean containsMessage(Long channelId, Long messageId) {
+        ChannelSlot slot = cache.asMap().get(channelId);
+        if (slot == null) {
+            return false;
+        }
+        List<CachedMessage> tail = slot.tail();
+        return tail != null && tail.stream().anyMatch(cached -> cached.message().id().equals(messageId));
+    }
+
+    private ChannelSlot openSlot(Long channelId) {
+        ChannelSlot slot = new ChannelSlot();
+        slot.subscription = messengerEventBus.channelEventsLater(channelId)
+                .flatMapMany(events -> events.doOnSubscribe(ignored -> slot.markSubscribed()))
+                .subscribe(
+                        event -> {
+                            if (slot.apply(event)) {
+                                cache.asMap().replace(channelId, slot, slot);
+                            }
+                        },
+                        error -> {
+                            log.warn("Channel tail subscription failed channelId={}", channelId, error);
+                            cache.asMap().remove(channelId, slot);
+                        }
+                );
+        return slot;
+    }
+
+    private List<MessageDto> render(List<CachedMessage> tail, Long viewerUserId, int limit) {
+        return tail.stream()
+                .limit(Math.max(limit, 0))
+                .map(cached -> cached.message().withReactions(reactionsFor(cached.reactors(), viewerUserId)))
+                .toList();
+    }
+
+    private List<MessageReactionDto> reactionsFor(Map<String, Set<Long>> reactors, Long viewerUserId) {
+        return reactors.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(entry -> new MessageReactionDto(
+                        entry.getKey(),
+                        entry.getValue().size(),
+                        entry.getValue().contains(viewerUserId)
+                ))
+                .sorted(Comparator.comparingLong(MessageReactionDto::count).reversed()
+                        .thenComparing(MessageReactionDto::emoji))
+                .toList();
+    }
+
+    public record CachedMessage(MessageDto message, Map<String, Set<Long>> reactors) {}
+
+    private static final class ChannelSlot {
+
+        private final long id = ThreadLocalRandom.current().nextLong();
+        private volatile Disposable subscription;
+        private boolean subscribed;
+        private List<CachedMessage> tail;
+        private long filledAt;
+        private long generation;
+        private int weight = 1;
+
+        synchronized List<CachedMessage> tail() {
+            return tail;
+        }
+
+        synchronized List<CachedMessage> freshTail(long maxAgeNanos) {
+            if (tail != null && System.nanoTime() - filledAt > maxAgeNanos) {
+                tail = null;
+                weight = 1;
+                generation++;
+            }
+            return tail;
+        }
+
+        synchronized void markSubscribed() {
+            subscribed = true;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized String version() {
+            return Long.toHexString(id) + "." + generation;
+        }
+
+        synchronized int weight() {
+            return weight;
+        }
+
+        synchronized boolean fill(List<CachedMessage> loaded, long expectedGeneration) {
+            if (!subscribed || generation != expectedGeneration || tail != null) {
+                return false;
+            }
+            tail = List.copyOf(loaded);
+            filledAt = System.nanoTime();
+            weight = weigh(tail);
+            return true;
+        }
+
+        synchronized boolean apply(MessengerEventDto event) {
+            generation++;
+            if (tail == null) {
+                return false;
+            }
+            switch (event.type()) {
+                case MESSAGE_CREATED -> tail = withMessage(tail, event.message());
+                case REACTIONS_UPDATED -> tail = withReactions(tail, event.messageId(), event.actorUserId(), event.actorReactions());
+                case MESSAGE_UPDATED, MESSAGE_DELETED -> tail = null;
+                default -> {
+                    return false;
+                }
+            }
+            weight = tail == null ? 1 : weigh(tail);
+            return true;
+        }
+
+        void close() {
+            Disposable current = subscription;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+
+        private static List<CachedMessage> withMessage(List<CachedMessage> tail, MessageDto message) {
+            if (message == null || tail.stream().anyMatch(cached -> cached.message().id().equals(message.id()))) {
+                return tail;
+            }
+            List<CachedMessage> updated = new ArrayList<>(tail.size() + 1);
+            updated.add(new CachedMessage(message.withReactions(List.of()), Map.of()));
+            updated.addAll(tail);
+            updated.sort(Comparator.comparing((CachedMessage cached) -> cached.message().id()).reversed());
+            return List.copyOf(updated.subList(0, Math.min(updated.size(), TAIL_SIZE)));
+        }
+
+        private static List<CachedMessage> withReactions(
+                List<CachedMessage> tail,
+                Long messageId,
+                Long actorUserId,
+                List<String> actorReactions
+        ) {
+            List<CachedMessage> updated = new ArrayList<>(tail.size());
+            for (CachedMessage cached : tail) {
+                if (!cached.message().id().equals(messageId)) {
+                    updated.add(cached);
+                    continue;
+                }
+                Map<String, Set<Long>> reactors = new HashMap<>();
+                cached.reactors().forEach((emoji, users) -> {
+                    Set<Long> remaining = new HashSet<>(users);
+                    remaining.remove(actorUserId);
+                    reactors.put(emoji, remaining);
+                });
+                for (String emoji : actorReactions == null ? List.<String>of() : actorReactions) {
+                    reactors.computeIfAbsent(emoji, ignored -> new HashSet<>()).add(actorUserId);
+                }
+                reactors.values().removeIf(Set::isEmpty);
+                updated.add(new CachedMessage(cached.message(), Map.copyOf(reactors)));
+            }
+            return List.copyOf(updated);
+        }
+
+        private static int weigh(List<CachedMessage> tail) {
+            long bytes = 256;
+            for (CachedMessage cached : tail) {
+                MessageDto message = cached.message();
+                bytes += 256
+                        + 2L * length(message.body())
+                        + 2L * length(message.replyToBody())
+                        + 2L * length(message.senderUsername())
+                        + 2L * length(message.replyToSenderUsername());
+                for (Set<Long> users : cached.reactors().values()) {
+                    bytes += 96 + 48L * users.size();
+                }
+            }
+            return (int) Math.min(bytes, Integer.MAX_VALUE);
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package space.confa.api.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import space.confa.api.configuration.properties.AvatarProp;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class PresignedUrlCache {
+
+    private final Cache<PresignKey, String> cache;
+    private final Duration safetyMargin;
+
+    public PresignedUrlCache(AvatarProp avatarProp, MeterRegistry meterRegistry) {
+        AvatarProp.PresignCache props = avatarProp.presignCache();
+        this.safetyMargin = props.safetyMargin();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.maxSize())
+                .expireAfter(new Expiry<PresignKey, String>() {
+                    @Override
+                    public long expireAfterCreate(PresignKey key, String url, long currentTime) {
+                        return reuseWindow(key.ttl()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(PresignKey key, String url, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(PresignKey key, String url, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "presigned_urls");
+    }
+
+    public String get(String objectKey, Duration ttl, Supplier<String> signer) {
+        if (reuseWindow(ttl).isZero()) {
+            return signer.get();
+        }
+        return cache.get(new PresignKey(objectKey, ttl), ignored -> signer.get());
+    }
+
+    public void invalidate(String objectKey) {
+        cache.asMap().keySet().removeIf(key -> key.objectKey().equals(objectKey));
+    }
+
+    private Duration reuseWindow(Duration ttl) {
+        Duration window = ttl.minus(safetyMargin);
+        return window.isNegative() ? Duration.ZERO : window;
+    }
+
+    private record PresignKey(String objectKey, Duration ttl) {}
+}
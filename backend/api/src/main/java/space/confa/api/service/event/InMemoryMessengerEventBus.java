@@ -0,0 +1,113 @@
+package space.confa.api.service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import space.confa.api.configuration.properties.MessengerProp;
+import space.confa.api.model.dto.response.MessengerEventDto;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "messenger.events", name = "bus", havingValue = "in-memory")
+public class InMemoryMessengerEventBus implements MessengerEventBus {
+
+    private final MessengerProp messengerProp;
+
+    private final Sinks.Many<Envelope> sink = Sinks.many().multicast().directBestEffort();
+    private final Map<String, Deque<MessengerEventDto>> history = new HashMap<>();
+    private long lastMillis;
+    private long sequence;
+
+    @Override
+    public Mono<Void> publishToChannel(Long channelId, MessengerEventDto event) {
+        return emit(channelTopic(channelId), event);
+    }
+
+    @Override
+    public Mono<Void> publishToUser(Long userId, MessengerEventDto event) {
+        return emit(userTopic(userId), event);
+    }
+
+    @Override
+    public Flux<MessengerEventDto> channelEvents(Long channelId) {
+        return events(channelTopic(channelId));
+    }
+
+    @Override
+    public Mono<Flux<MessengerEventDto>> channelEventsLater(Long channelId) {
+        return Mono.just(events(channelTopic(channelId)));
+    }
+
+    @Override
+    public Flux<MessengerEventDto> userEvents(Long userId) {
+        return events(userTopic(userId));
+    }
+
+    @Override
+    public Flux<MessengerEventDto> channelEventsAfter(Long channelId, String lastEventId) {
+        return replay(channelTopic(channelId), lastEventId);
+    }
+
+    @Override
+    public Flux<MessengerEventDto> userEventsAfter(Long userId, String lastEventId) {
+        return replay(userTopic(userId), lastEventId);
+    }
+
+    private Flux<MessengerEventDto> events(String topic) {
+        return sink.asFlux()
+                .filter(envelope -> envelope.topic().equals(topic))
+                .map(Envelope::event);
+    }
+
+    private Flux<MessengerEventDto> replay(String topic, String lastEventId) {
+        return Flux.defer(() -> {
+            List<MessengerEventDto> events;
+            synchronized (sink) {
+                events = List.copyOf(history.getOrDefault(topic, new ArrayDeque<>()));
+            }
+            return Flux.fromIterable(events)
+                    .filter(event -> MessengerEventIds.compare(event.id(), lastEventId) > 0)
+                    .take(messengerProp.events().replayLimit());
+        });
+    }
+
+    private Mono<Void> emit(String topic, MessengerEventDto event) {
+        return Mono.fromRunnable(() -> {
+            Sinks.EmitResult result;
+            synchronized (sink) {
+                lastMillis = Math.max(lastMillis, System.currentTimeMillis());
+                MessengerEventDto stored = event.withId(MessengerEventIds.of(lastMillis, ++sequence));
+                Deque<MessengerEventDto> events = history.computeIfAbsent(topic, key -> new ArrayDeque<>());
+                events.addLast(stored);
+                while (events.size() > messengerProp.events().streamMaxLength()) {
+                    events.removeFirst();
+                }
+                result = sink.tryEmitNext(new Envelope(topic, stored));
+            }
+            if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                log.warn("Failed to emit messenger event type={} result={}", event.type(), result);
+            }
+        });
+    }
+
+    private String channelTopic(Long channelId) {
+        return "channel:" + channelId;
+    }
+
+    private String userTopic(Long userId) {
+        return "user:" + userId;
+    }
+
+    private record Envelope(String topic, MessengerEventDto event) {}
+}
@@ -0,0 +1,15 @@
+package space.confa.api.service.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import space.confa.api.model.dto.response.MessengerEventDto;
+
+public interface MessengerEventBus {
+    Mono<Void> publishToChannel(Long channelId, MessengerEventDto event);
+    Mono<Void> publishToUser(Long userId, MessengerEventDto event);
+    Flux<MessengerEventDto> channelEvents(Long channelId);
+    Mono<Flux<MessengerEventDto>> channelEventsLater(Long channelId);
+    Flux<MessengerEventDto> userEvents(Long userId);
+    Flux<MessengerEventDto> channelEventsAfter(Long channelId, String lastEventId);
+    Flux<MessengerEventDto> userEventsAfter(Long userId, String lastEventId);
+}
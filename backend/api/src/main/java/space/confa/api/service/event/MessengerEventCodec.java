@@ -0,0 +1,32 @@
+package space.confa.api.service.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import space.confa.api.model.dto.response.MessengerEventDto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Component
+@RequiredArgsConstructor
+public class MessengerEventCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(MessengerEventDto event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public MessengerEventDto decode(String payload) {
+        try {
+            return objectMapper.readValue(payload, MessengerEventDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
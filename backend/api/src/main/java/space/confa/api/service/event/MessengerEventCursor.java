@@ -0,0 +1,119 @@
+package space.confa.api.service.event;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resume position of a user's event stream: the last delivered id of recently active topic streams plus the moment
+ * the stream was first opened. Ids of independent streams are not comparable, so each topic resumes on its own id and
+ * topics without one replay from {@code since}. Only the {@value #MAX_CHANNEL_TOPICS} most recently advanced channel
+ * topics are kept, which bounds the size of the {@code Last-Event-ID} header.
+ */
+public final class MessengerEventCursor {
+
+    static final int MAX_CHANNEL_TOPICS = 32;
+
+    private static final String USER_TOPIC = "u";
+    private static final String CHANNEL_PREFIX = "c";
+    private static final String SINCE = "s";
+    private static final String ENTRY_SEPARATOR = ";";
+    private static final String VALUE_SEPARATOR = "=";
+
+    private final long since;
+    private final Map<String, String> lastIds;
+
+    private MessengerEventCursor(long since, Map<String, String> lastIds) {
+        this.since = since;
+        this.lastIds = lastIds;
+    }
+
+    public static MessengerEventCursor startingAt(long since) {
+        return new MessengerEventCursor(since, new LinkedHashMap<>());
+    }
+
+    public static Optional<MessengerEventCursor> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        Long since = null;
+        Map<String, String> lastIds = new LinkedHashMap<>();
+        for (String entry : value.split(ENTRY_SEPARATOR)) {
+            int separator = entry.indexOf(VALUE_SEPARATOR);
+            if (separator <= 0) {
+                return Optional.empty();
+            }
+            String key = entry.substring(0, separator);
+            String id = entry.substring(separator + 1);
+            if (key.equals(SINCE)) {
+                try {
+                    since = Long.parseLong(id);
+                } catch (NumberFormatException e) {
+                    return Optional.empty();
+                }
+            } else if (isTopic(key) && MessengerEventIds.isValid(id)) {
+                lastIds.put(key, id);
+            } else {
+                return Optional.empty();
+            }
+        }
+        return since == null ? Optional.empty() : Optional.of(new MessengerEventCursor(since, capped(lastIds)));
+    }
+
+    public static String userTopic() {
+        return USER_TOPIC;
+    }
+
+    public static String channelTopic(Long channelId) {
+        return CHANNEL_PREFIX + channelId;
+    }
+
+    public String resumeId(String topic) {
+        String lastId = lastIds.get(topic);
+        return lastId != null ? lastId : MessengerEventIds.of(Math.max(since - 1, 0), Long.MAX_VALUE);
+    }
+
+    public MessengerEventCursor advance(String topic, String id) {
+        Map<String, String> updated = new LinkedHashMap<>(lastIds);
+        updated.remove(topic);
+        updated.put(topic, id);
+        return new MessengerEventCursor(since, capped(updated));
+    }
+
+    public String format() {
+        StringBuilder value = new StringBuilder(SINCE).append(VALUE_SEPARATOR).append(since);
+        lastIds.forEach((topic, id) -> value.append(ENTRY_SEPARATOR).append(topic).append(VALUE_SEPARATOR).append(id));
+        return value.toString();
+    }
+
+    /**
+     * Drops the least recently advanced channel topics beyond the limit; they resume from {@code since} again.
+     */
+    private static Map<String, String> capped(Map<String, String> lastIds) {
+        int excess = lastIds.size() - (lastIds.containsKey(USER_TOPIC) ? 1 : 0) - MAX_CHANNEL_TOPICS;
+        Iterator<String> topics = lastIds.keySet().iterator();
+        while (excess > 0 && topics.hasNext()) {
+            if (!topics.next().equals(USER_TOPIC)) {
+                topics.remove();
+                excess--;
+            }
+        }
+        return lastIds;
+    }
+
+    private static boolean isTopic(String key) {
+        if (key.equals(USER_TOPIC)) {
+            return true;
+        }
+        if (!key.startsWith(CHANNEL_PREFIX) || key.length() == 1) {
+            return false;
+        }
+        for (int i = 1; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package space.confa.api.service.event;
+
+import java.util.regex.Pattern;
+
+public final class MessengerEventIds {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d{1,18}-\\d{1,18}");
+
+    private MessengerEventIds() {}
+
+    public static String of(long millis, long sequence) {
+        return millis + "-" + sequence;
+    }
+
+    public static boolean isValid(String id) {
+        return id != null && ID_PATTERN.matcher(id).matches();
+    }
+
+    public static int compare(String left, String right) {
+        int leftSeparator = left.indexOf('-');
+        int rightSeparator = right.indexOf('-');
+        int result = Long.compare(
+                Long.parseLong(left.substring(0, leftSeparator)),
+                Long.parseLong(right.substring(0, rightSeparator))
+        );
+        if (result != 0) {
+            return result;
+        }
+        return Long.compare(
+                Long.parseLong(left.substring(leftSeparator + 1)),
+                Long.parseLong(right.substring(rightSeparator + 1))
+        );
+    }
+}
@@ -0,0 +1,134 @@
+package space.confa.api.service.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import space.confa.api.configuration.properties.MessengerProp;
+import space.confa.api.model.dto.response.MessengerEventDto;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "messenger.events", name = "bus", havingValue = "redis", matchIfMissing = true)
+public class RedisMessengerEventBus implements MessengerEventBus {
+
+    private static final String KEY_PREFIX = "messenger:events:";
+    private static final String EVENT_FIELD = "e";
+
+    private final ReactiveStringRedisTemplate redis;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final MessengerEventCodec codec;
+    private final MessengerProp messengerProp;
+
+    private final Map<String, Mono<Flux<MessengerEventDto>>> subscriptions = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> publishToChannel(Long channelId, MessengerEventDto event) {
+        return publish(channelKey(channelId), event);
+    }
+
+    @Override
+    public Mono<Void> publishToUser(Long userId, MessengerEventDto event) {
+        return publish(userKey(userId), event);
+    }
+
+    @Override
+    public Flux<MessengerEventDto> channelEvents(Long channelId) {
+        return subscribe(channelKey(channelId));
+    }
+
+    @Override
+    public Mono<Flux<MessengerEventDto>> channelEventsLater(Long channelId) {
+        return subscribeLater(channelKey(channelId));
+    }
+
+    @Override
+    public Flux<MessengerEventDto> userEvents(Long userId) {
+        return subscribe(userKey(userId));
+    }
+
+    @Override
+    public Flux<MessengerEventDto> channelEventsAfter(Long channelId, String lastEventId) {
+        return replay(channelKey(channelId), lastEventId);
+    }
+
+    @Override
+    public Flux<MessengerEventDto> userEventsAfter(Long userId, String lastEventId) {
+        return replay(userKey(userId), lastEventId);
+    }
+
+    private Mono<Void> publish(String key, MessengerEventDto event) {
+        MessengerProp.Events props = messengerProp.events();
+        return redis.opsForStream()
+                .add(StreamRecords.string(Map.of(EVENT_FIELD, codec.encode(event))).withStreamKey(key))
+                .flatMap(recordId -> redis.convertAndSend(key, codec.encode(event.withId(recordId.getValue())))
+                        .then(Mono.when(
+                                redis.opsForStream().trim(key, props.streamMaxLength(), true),
+                                redis.expire(key, props.streamRetention())
+                        )));
+    }
+
+    private Flux<MessengerEventDto> subscribe(String key) {
+        return subscribeLater(key).flatMapMany(Function.identity());
+    }
+
+    private Mono<Flux<MessengerEventDto>> subscribeLater(String key) {
+        return subscriptions.computeIfAbsent(key, topic -> {
+            AtomicReference<Mono<Flux<MessengerEventDto>>> shared = new AtomicReference<>();
+            shared.set(listenerContainer.receiveLater(ChannelTopic.of(topic))
+                    .map(messages -> messages
+                            .<MessengerEventDto>handle((message, sink) -> {
+                                try {
+                                    sink.next(codec.decode(message.getMessage()));
+                                } catch (UncheckedIOException e) {
+                                    log.warn("Dropping undecodable messenger event topic={}", topic, e);
+                                }
+                            })
+                            .doFinally(signal -> subscriptions.remove(topic, shared.get()))
+                            .share())
+                    .doOnError(error -> subscriptions.remove(topic, shared.get()))
+                    .cache());
+            return shared.get();
+        });
+    }
+
+    private Flux<MessengerEventDto> replay(String key, String lastEventId) {
+        return redis.opsForStream()
+                .range(
+                        key,
+                        Range.rightUnbounded(Range.Bound.exclusive(lastEventId)),
+                        Limit.limit().count(messengerProp.events().replayLimit())
+                )
+                .<MessengerEventDto>handle((record, sink) -> {
+                    try {
+                        String payload = String.valueOf(record.getValue().get(EVENT_FIELD));
+                        sink.next(codec.decode(payload).withId(record.getId().getValue()));
+                    } catch (UncheckedIOException e) {
+                        log.warn("Skipping undecodable messenger event key={} id={}", key, record.getId(), e);
+                    }
+                });
+    }
+
+    private String channelKey(Long channelId) {
+        return KEY_PREFIX + "channel:" + channelId;
+    }
+
+    private String userKey(Long userId) {
+        return KEY_PREFIX + "user:" + userId;
+    }
+}
@@ -0,0 +1,267 @@
+package space.confa.api.service.image;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import space.confa.api.configuration.properties.AvatarProp;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class AvatarImageProcessor {
+
+    public static final int PROCESSING_VERSION = 2;
+
+    private static final int MAX_DIMENSION = 4096;
+    private static final int MAX_OUTPUT_DIMENSION = 1024;
+
+    private final Scheduler scheduler;
+    private final Semaphore pixelBudget;
+    private final int maxPixels;
+    private final Duration budgetTimeout;
+
+    public AvatarImageProcessor(AvatarProp avatarProp) {
+        AvatarProp.Processing processing = avatarProp.processing();
+        this.scheduler = Schedulers.newBoundedElastic(
+                processing.threads(),
+                processing.queueCapacity(),
+                "avatar-image"
+        );
+        this.maxPixels = processing.pixelBudget();
+        this.pixelBudget = new Semaphore(maxPixels, true);
+        this.budgetTimeout = processing.pixelBudgetTimeout();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    public Mono<ProcessedAvatar> process(Path original) {
+        return Mono.fromCallable(() -> decodeAndRender(original))
+                .subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class,
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Avatar processing is busy"));
+    }
+
+    private ProcessedAvatar decodeAndRender(Path original) throws IOException, InterruptedException {
+        try (ImageInputStream input = openInput(original)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw invalidImage(null);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = readDimension(() -> reader.getWidth(0));
+                int height = readDimension(() -> reader.getHeight(0));
+                if (width <= 0 || height <= 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid image dimensions");
+                }
+                if (width > MAX_DIMENSION || height > MAX_DIMENSION) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image dimensions are too large");
+                }
+
+                int subsampling = Math.max(1, Math.max(width, height) / MAX_OUTPUT_DIMENSION);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                int permits = (int) Math.min(
+                        workingPixels(ceilDiv(width, subsampling), ceilDiv(height, subsampling)),
+                        maxPixels
+                );
+
+                if (!pixelBudget.tryAcquire(permits, budgetTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Avatar processing is busy");
+                }
+                try {
+                    BufferedImage image = decode(reader, param);
+                    if (Math.max(image.getWidth(), image.getHeight()) > MAX_OUTPUT_DIMENSION) {
+                        image = downscale(image, MAX_OUTPUT_DIMENSION);
+                    }
+                    return new ProcessedAvatar(width, height, encodePng(image), renditions(image));
+                } finally {
+                    pixelBudget.release(permits);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private ImageInputStream openInput(Path original) {
+        try {
+            return ImageIO.createImageInputStream(original.toFile());
+        } catch (IOException | RuntimeException e) {
+            throw invalidImage(e);
+        }
+    }
+
+    private int readDimension(DimensionReader dimension) {
+        try {
+            return dimension.read();
+        } catch (IOException | RuntimeException e) {
+            throw invalidImage(e);
+        }
+    }
+
+    private BufferedImage decode(ImageReader reader, ImageReadParam param) {
+        try {
+            BufferedImage image = reader.read(0, param);
+            if (image == null) {
+                throw invalidImage(null);
+            }
+            return image;
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof ResponseStatusException rejected) {
+                throw rejected;
+            }
+            throw invalidImage(e);
+        }
+    }
+
+    private ResponseStatusException invalidImage(Throwable cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to decode image", cause);
+    }
+
+    private int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Pixels held by the decoded image plus every intermediate and rendition buffer the downscale chain allocates.
+     */
+    private long workingPixels(int width, int height) {
+        long total = (long) width * height;
+        Dimensions current = new Dimensions(width, height);
+        if (current.longest() > MAX_OUTPUT_DIMENSION) {
+            for (Dimensions step : downscaleSteps(current, MAX_OUTPUT_DIMENSION)) {
+                total += step.pixels();
+                current = step;
+            }
+        }
+        for (int size : renditionSizes(current.longest())) {
+            for (Dimensions step : downscaleSteps(current, size)) {
+                total += step.pixels();
+                current = step;
+            }
+        }
+        return total;
+    }
+
+    private List<Integer> renditionSizes(int longest) {
+        return AvatarRenditions.SIZES.stream()
+                .filter(size -> size < longest)
+                .sorted((a, b) -> Integer.compare(b, a))
+                .toList();
+    }
+
+    private Map<Integer, byte[]> renditions(BufferedImage image) throws IOException {
+        Map<Integer, byte[]> renditions = new LinkedHashMap<>();
+        BufferedImage source = image;
+        for (int size : renditionSizes(Math.max(image.getWidth(), image.getHeight()))) {
+            source = downscale(source, size);
+            renditions.put(size, encodePng(source));
+        }
+        return renditions;
+    }
+
+    private BufferedImage downscale(BufferedImage source, int size) {
+        BufferedImage current = source;
+        for (Dimensions step : downscaleSteps(new Dimensions(source.getWidth(), source.getHeight()), size)) {
+            current = resize(current, step.width(), step.height());
+        }
+        return current;
+    }
+
+    private List<Dimensions> downscaleSteps(Dimensions source, int size) {
+        int targetWidth = Math.max(1, Math.round(source.width() * (float) size / source.longest()));
+        int targetHeight = Math.max(1, Math.round(source.height() * (float) size / source.longest()));
+        List<Dimensions> steps = new ArrayList<>();
+        int width = source.width();
+        int height = source.height();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            steps.add(new Dimensions(width, height));
+        } while (width != targetWidth || height != targetHeight);
+        return steps;
+    }
+
+    private BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0.0f);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface DimensionReader {
+        int read() throws IOException;
+    }
+
+    private record Dimensions(int width, int height) {
+        private int longest() {
+            return Math.max(width, height);
+        }
+
+        private long pixels() {
+            return (long) width * height;
+        }
+    }
+
+    public record ProcessedAvatar(
+            int width,
+            int height,
+            byte[] pngBytes,
+            Map<Integer, byte[]> renditions
+    ) {}
+}
@@ -0,0 +1,51 @@
+package space.confa.api.service.image;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class AvatarRenditions {
+
+    public static final List<Integer> SIZES = List.of(32, 64, 128, 256);
+
+    private AvatarRenditions() {}
+
+    public static String key(String keyPng, int size) {
+        String base = keyPng.endsWith(".png") ? keyPng.substring(0, keyPng.length() - 4) : keyPng;
+        return base + "-" + size + ".png";
+    }
+
+    public static Integer bestFit(List<Integer> available, Integer requestedSize) {
+        if (requestedSize == null || available == null) {
+            return null;
+        }
+        return available.stream()
+                .filter(size -> size >= requestedSize)
+                .min(Integer::compare)
+                .orElse(null);
+    }
+
+    public static String keyFor(String keyPng, List<Integer> available, Integer requestedSize) {
+        Integer size = bestFit(available, requestedSize);
+        return size == null ? keyPng : key(keyPng, size);
+    }
+
+    public static List<Integer> parse(String sizes) {
+        if (sizes == null || sizes.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(sizes.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+    }
+
+    public static String format(Collection<Integer> sizes) {
+        if (sizes.isEmpty()) {
+            return null;
+        }
+        return sizes.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,20 @@
+package space.confa.api.service.livekit;
+
+import livekit.LivekitWebhook;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "livekit.registry", name = "mirror", havingValue = "in-memory", matchIfMissing = true)
+public class InMemoryRoomEventRelay implements RoomEventRelay {
+
+    private final LivekitRoomRegistry roomRegistry;
+
+    @Override
+    public Mono<Void> publish(LivekitWebhook.WebhookEvent event) {
+        return Mono.fromRunnable(() -> roomRegistry.apply(event));
+    }
+}
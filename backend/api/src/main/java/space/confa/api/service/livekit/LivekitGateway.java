@@ -0,0 +1,223 @@
+package space.confa.api.service.livekit;
+
+import io.livekit.server.AgentDispatchServiceClient;
+import io.livekit.server.RoomServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import livekit.LivekitModels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import space.confa.api.configuration.properties.LivekitProp;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class LivekitGateway {
+
+    private final RoomServiceClient roomClient;
+    private final AgentDispatchServiceClient agentDispatchClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public LivekitGateway(
+            RoomServiceClient roomClient,
+            AgentDispatchServiceClient agentDispatchClient,
+            MeterRegistry meterRegistry,
+            LivekitProp livekitProp
+    ) {
+        LivekitProp.Gateway gateway = livekitProp.gateway();
+        this.roomClient = roomClient;
+        this.agentDispatchClient = agentDispatchClient;
+        this.meterRegistry = meterRegistry;
+        this.timeout = gateway.timeout();
+        this.bulkhead = new Semaphore(gateway.maxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(gateway.failureThreshold(), gateway.openDuration());
+    }
+
+    public Mono<List<LivekitModels.Room>> listRooms(List<String> names) {
+        return lookup("listRooms", () -> roomClient.listRooms(names))
+                .defaultIfEmpty(List.of());
+    }
+
+    public Mono<List<LivekitModels.ParticipantInfo>> listParticipants(String room) {
+        return lookup("listParticipants", () -> roomClient.listParticipants(room))
+                .defaultIfEmpty(List.of());
+    }
+
+    public Mono<Void> removeParticipant(String room, String identity) {
+        return call("removeParticipant", () -> roomClient.removeParticipant(room, identity)).then();
+    }
+
+    public Mono<Void> updateRoomMetadata(String room, String metadata) {
+        return call("updateRoomMetadata", () -> roomClient.updateRoomMetadata(room, metadata)).then();
+    }
+
+    public Mono<Void> sendData(String room, byte[] payload, List<String> destinationSids) {
+        return call("sendData", () -> roomClient.sendData(
+                room,
+                payload,
+                LivekitModels.DataPacket.Kind.RELIABLE,
+                destinationSids
+        )).then();
+    }
+
+    public Mono<Void> createDispatch(String room, String agentName, String metadata) {
+        return call("createDispatch", () -> agentDispatchClient.createDispatch(room, agentName, metadata)).then();
+    }
+
+    private <T> Mono<T> lookup(String operation, Supplier<Call<T>> request) {
+        return call(operation, request)
+                .onErrorResume(LivekitGateway::isNotFound, error -> Mono.empty());
+    }
+
+    private <T> Mono<T> call(String operation, Supplier<Call<T>> request) {
+        return Mono.defer(() -> {
+            Permit permit = circuitBreaker.acquire();
+            if (permit == Permit.REJECTED) {
+                record(operation, "rejected_open", 0);
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "LiveKit is unavailable"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.release(permit);
+                record(operation, "rejected_busy", 0);
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "LiveKit is busy"));
+            }
+            long startedAt = System.nanoTime();
+            return this.<T>enqueue(request.get())
+                    .timeout(timeout)
+                    .doOnSuccess(ignored -> {
+                        circuitBreaker.onSuccess(permit);
+                        record(operation, "success", startedAt);
+                    })
+                    .doOnError(error -> {
+                        if (error instanceof RejectedCallException) {
+                            circuitBreaker.onSuccess(permit);
+                            record(operation, "rejected", startedAt);
+                        } else {
+                            circuitBreaker.onFailure(permit);
+                            record(operation, "failure", startedAt);
+                        }
+                        log.warn("LiveKit call {} failed: {}", operation, error.toString());
+                    })
+                    .doOnCancel(() -> circuitBreaker.release(permit))
+                    .doFinally(signal -> bulkhead.release())
+                    .onErrorMap(TimeoutException.class,
+                            e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "LiveKit timed out", e))
+                    .onErrorMap(RejectedCallException.class,
+                            e -> new ResponseStatusException(
+                                    e.code == HttpStatus.NOT_FOUND.value() ? HttpStatus.NOT_FOUND : HttpStatus.BAD_GATEWAY,
+                                    "LiveKit rejected request with HTTP " + e.code,
+                                    e
+                            ))
+                    .onErrorMap(error -> !(error instanceof ResponseStatusException),
+                            e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "LiveKit request failed", e));
+        });
+    }
+
+    private <T> Mono<T> enqueue(Call<T> call) {
+        return Mono.create(sink -> {
+            sink.onCancel(call::cancel);
+            call.enqueue(new Callback<>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    if (response.isSuccessful()) {
+                        sink.success(response.body());
+                    } else if (response.code() < 500) {
+                        sink.error(new RejectedCallException(response.code()));
+                    } else {
+                        sink.error(new IllegalStateException("LiveKit responded with HTTP " + response.code()));
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable error) {
+                    sink.error(error);
+                }
+            });
+        });
+    }
+
+    private static boolean isNotFound(Throwable error) {
+        return error instanceof ResponseStatusException e && e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND);
+    }
+
+    private void record(String operation, String outcome, long startedAt) {
+        Timer timer = Timer.builder("livekit.call")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+        timer.record(startedAt == 0 ? 0 : System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private enum Permit { REJECTED, CALL, TRIAL }
+
+    /** LiveKit answered with a 4xx: the request was wrong, the server is healthy. */
+    private static final class RejectedCallException extends RuntimeException {
+        private final int code;
+
+        private RejectedCallException(int code) {
+            super("LiveKit responded with HTTP " + code);
+            this.code = code;
+        }
+    }
+
+    private static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openNanos;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean open;
+        private boolean trialInFlight;
+
+        private CircuitBreaker(int failureThreshold, Duration openDuration) {
+            this.failureThreshold = failureThreshold;
+            this.openNanos = openDuration.toNanos();
+        }
+
+        private synchronized Permit acquire() {
+            if (!open) {
+                return Permit.CALL;
+            }
+            if (trialInFlight || System.nanoTime() - openedAt < openNanos) {
+                return Permit.REJECTED;
+            }
+            trialInFlight = true;
+            return Permit.TRIAL;
+        }
+
+        private synchronized void onSuccess(Permit permit) {
+            consecutiveFailures = 0;
+            open = false;
+            release(permit);
+        }
+
+        private synchronized void onFailure(Permit permit) {
+            consecutiveFailures++;
+            if (permit == Permit.TRIAL || consecutiveFailures >= failureThreshold) {
+                open = true;
+                openedAt = System.nanoTime();
+            }
+            release(permit);
+        }
+
+        private synchronized void release(Permit permit) {
+            if (permit == Permit.TRIAL) {
+                trialInFlight = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package space.confa.api.service.livekit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LivekitRoomReconciler {
+
+    private static final int PARTICIPANT_LOOKUP_CONCURRENCY = 4;
+
+    private final LivekitGateway livekitGateway;
+    private final LivekitRoomRegistry roomRegistry;
+
+    @Scheduled(fixedDelayString = "${livekit.registry.reconcile-interval}")
+    public Mono<Void> reconcile() {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return livekitGateway.listRooms(null)
+                    .flatMapMany(Flux::fromIterable)
+                    .flatMap(room -> livekitGateway.listParticipants(room.getName())
+                            .map(participants -> LivekitRoomRegistry.RoomState.of(room, participants, startedAt)),
+                            PARTICIPANT_LOOKUP_CONCURRENCY)
+                    .collectMap(state -> state.room().getName())
+                    .doOnNext(snapshot -> roomRegistry.replaceAll(snapshot, startedAt))
+                    .doOnNext(snapshot -> log.debug("Reconciled {} LiveKit rooms", snapshot.size()))
+                    .then();
+        }).onErrorResume(e -> {
+            roomRegistry.reconcileFailed();
+            log.warn("LiveKit room reconciliation failed: {}", e.toString());
+            return Mono.empty();
+        });
+    }
+}
@@ -0,0 +1,195 @@
+package space.confa.api.service.livekit;
+
+import livekit.LivekitModels;
+import livekit.LivekitWebhook;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import space.confa.api.configuration.properties.LivekitProp;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Room and participant state fed by LiveKit webhooks and periodically replaced by a reconcile snapshot. Events carry
+ * their creation time, and an event older than the last one applied to the same room or participant is dropped, so
+ * redelivered or reordered webhooks cannot resurrect departed participants or finished rooms. Creation times only
+ * have second granularity, so a departure wins over any other participant event from the same second.
+ */
+@Slf4j
+@Component
+public class LivekitRoomRegistry {
+
+    private static final Set<String> PARTICIPANT_GONE_EVENTS = Set.of("participant_left", "participant_connection_aborted");
+
+    private final LivekitProp.Registry props;
+    private final Map<String, RoomState> rooms = new ConcurrentHashMap<>();
+    private final Map<String, Tombstone> finishedRooms = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile long reconciledAt;
+    private int failedReconciles;
+
+    public LivekitRoomRegistry(LivekitProp livekitProp) {
+        this.props = livekitProp.registry();
+    }
+
+    /**
+     * True while the last snapshot is recent enough to serve reads; callers fall back to the gateway otherwise.
+     */
+    public boolean isReady() {
+        return ready && System.nanoTime() - reconciledAt <= props.staleAfter().toNanos();
+    }
+
+    public List<RoomState> rooms() {
+        return rooms.values().stream()
+                .sorted(Comparator.comparingLong(state -> state.room().getCreationTime()))
+                .toList();
+    }
+
+    public Optional<RoomState> room(String name) {
+        return Optional.ofNullable(rooms.get(name));
+    }
+
+    public void apply(LivekitWebhook.WebhookEvent event) {
+        String roomName = event.hasRoom() ? event.getRoom().getName() : null;
+        if (roomName == null || roomName.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long eventAt = event.getCreatedAt();
+        Tombstone tombstone = finishedRooms.get(roomName);
+        if (tombstone != null && eventAt < tombstone.eventAt()) {
+            log.debug("Ignored LiveKit event {} for finished room {}", event.getEvent(), roomName);
+            return;
+        }
+        String eventType = event.getEvent();
+        if (PARTICIPANT_GONE_EVENTS.contains(eventType)) {
+            rooms.computeIfPresent(roomName, (name, state) ->
+                    state.withoutParticipant(event.getParticipant().getIdentity(), eventAt, now));
+            log.debug("Applied LiveKit event {} to room {}", eventType, roomName);
+            return;
+        }
+        switch (eventType) {
+            case "room_finished" -> {
+                RoomState state = rooms.get(roomName);
+                if (state != null && eventAt < state.roomEventAt()) {
+                    return;
+                }
+                finishedRooms.put(roomName, new Tombstone(eventAt, now));
+                rooms.remove(roomName);
+            }
+            default -> rooms.compute(roomName, (name, state) -> {
+                RoomState current = state == null
+                        ? new RoomState(event.getRoom(), Map.of(), now, eventAt, Map.of())
+                        : state.withRoom(event.getRoom(), eventAt, now);
+                if (!event.hasParticipant()) {
+                    return current;
+                }
+                return eventType.equals("participant_joined")
+                        ? current.withParticipant(event.getParticipant(), eventAt, now)
+                        : current.updateParticipant(event.getParticipant(), eventAt, now);
+            });
+        }
+        log.debug("Applied LiveKit event {} to room {}", eventType, roomName);
+    }
+
+    public void replaceAll(Map<String, RoomState> snapshot, long startedAt) {
+        finishedRooms.values().removeIf(tombstone -> tombstone.recordedAt() < startedAt);
+        rooms.entrySet().removeIf(entry -> !snapshot.containsKey(entry.getKey()) && entry.getValue().updatedAt() < startedAt);
+        snapshot.forEach((name, state) -> {
+            if (finishedRooms.containsKey(name)) {
+                return;
+            }
+            rooms.merge(name, state, (current, fresh) ->
+                    current.updatedAt() > startedAt ? current : fresh.withEventClocks(current));
+        });
+        synchronized (this) {
+            failedReconciles = 0;
+            reconciledAt = System.nanoTime();
+            ready = true;
+        }
+    }
+
+    public synchronized void reconcileFailed() {
+        failedReconciles++;
+        if (ready && failedReconciles >= props.maxFailedReconciles()) {
+            ready = false;
+            log.warn("LiveKit room registry disabled after {} failed reconciles", failedReconciles);
+        }
+    }
+
+    private record Tombstone(long eventAt, long recordedAt) {}
+
+    public record ParticipantClock(long eventAt, boolean gone) {}
+
+    public record RoomState(
+            LivekitModels.Room room,
+            Map<String, LivekitModels.ParticipantInfo> participantsByIdentity,
+            long updatedAt,
+            long roomEventAt,
+            Map<String, ParticipantClock> participantClocks
+    ) {
+        public static RoomState of(LivekitModels.Room room, List<LivekitModels.ParticipantInfo> participants, long updatedAt) {
+            Map<String, LivekitModels.ParticipantInfo> byIdentity = new LinkedHashMap<>();
+            participants.forEach(p -> byIdentity.put(p.getIdentity(), p));
+            return new RoomState(room, Map.copyOf(byIdentity), updatedAt, 0, Map.of());
+        }
+
+        public List<LivekitModels.ParticipantInfo> participants() {
+            return participantsByIdentity.values().stream()
+                    .sorted(Comparator.comparingLong(LivekitModels.ParticipantInfo::getJoinedAt))
+                    .toList();
+        }
+
+        private RoomState withRoom(LivekitModels.Room updated, long eventAt, long now) {
+            if (eventAt < roomEventAt) {
+                return this;
+            }
+            return new RoomState(updated, participantsByIdentity, now, eventAt, participantClocks);
+        }
+
+        private RoomState withParticipant(LivekitModels.ParticipantInfo participant, long eventAt, long now) {
+            if (!after(participant.getIdentity(), eventAt)) {
+                return this;
+            }
+            Map<String, LivekitModels.ParticipantInfo> updated = new LinkedHashMap<>(participantsByIdentity);
+            updated.put(participant.getIdentity(), participant);
+            return new RoomState(room, Map.copyOf(updated), now, roomEventAt, clock(participant.getIdentity(), eventAt, false));
+        }
+
+        private RoomState updateParticipant(LivekitModels.ParticipantInfo participant, long eventAt, long now) {
+            return participantsByIdentity.containsKey(participant.getIdentity())
+                    ? withParticipant(participant, eventAt, now)
+                    : this;
+        }
+
+        private RoomState withoutParticipant(String identity, long eventAt, long now) {
+            ParticipantClock last = participantClocks.get(identity);
+            if (last != null && eventAt < last.eventAt()) {
+                return this;
+            }
+            Map<String, LivekitModels.ParticipantInfo> updated = new LinkedHashMap<>(participantsByIdentity);
+            updated.remove(identity);
+            return new RoomState(room, Map.copyOf(updated), now, roomEventAt, clock(identity, eventAt, true));
+        }
+
+        private boolean after(String identity, long eventAt) {
+            ParticipantClock last = participantClocks.get(identity);
+            return last == null || eventAt > last.eventAt() || (eventAt == last.eventAt() && !last.gone());
+        }
+
+        private RoomState withEventClocks(RoomState previous) {
+            return new RoomState(room, participantsByIdentity, updatedAt, previous.roomEventAt(), previous.participantClocks());
+        }
+
+        private Map<String, ParticipantClock> clock(String identity, long eventAt, boolean gone) {
+            Map<String, ParticipantClock> updated = new LinkedHashMap<>(participantClocks);
+            updated.put(identity, new ParticipantClock(eventAt, gone));
+            return Map.copyOf(updated);
+        }
+    }
+}
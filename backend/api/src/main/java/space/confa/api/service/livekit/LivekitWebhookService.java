@@ -0,0 +1,36 @@
+package space.confa.api.service.livekit;
+
+import io.livekit.server.WebhookReceiver;
+import livekit.LivekitWebhook;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LivekitWebhookService {
+
+    private final WebhookReceiver webhookReceiver;
+    private final RoomEventRelay roomEventRelay;
+
+    public Mono<Void> receive(String body, String authorization) {
+        return Mono.fromCallable(() -> verify(body, authorization))
+                .flatMap(roomEventRelay::publish);
+    }
+
+    private LivekitWebhook.WebhookEvent verify(String body, String authorization) {
+        if (body == null || authorization == null || authorization.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing webhook signature");
+        }
+        try {
+            return webhookReceiver.receive(body, authorization, false);
+        } catch (RuntimeException e) {
+            log.warn("Rejected LiveKit webhook: {}", e.toString());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid webhook signature");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package space.confa.api.service.livekit;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import livekit.LivekitWebhook;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "livekit.registry", name = "mirror", havingValue = "redis")
+public class RedisRoomEventRelay implements RoomEventRelay {
+
+    private static final String TOPIC = "livekit:room-events";
+    private static final String SEPARATOR = ":";
+
+    private final ReactiveStringRedisTemplate redis;
+    private final LivekitRoomRegistry roomRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private Disposable subscription;
+
+    @PostConstruct
+    public void subscribe() {
+        subscription = redis.listenToChannel(TOPIC)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> receive(message.getMessage()));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Void> publish(LivekitWebhook.WebhookEvent event) {
+        return Mono.fromRunnable(() -> roomRegistry.apply(event))
+                .then(redis.convertAndSend(TOPIC, nodeId + SEPARATOR + Base64.getEncoder().encodeToString(event.toByteArray())))
+                .onErrorResume(e -> {
+                    log.warn("Failed to mirror LiveKit event {} to Redis: {}", event.getEvent(), e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void receive(String payload) {
+        int separator = payload.indexOf(SEPARATOR);
+        if (separator < 0 || payload.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        try {
+            roomRegistry.apply(LivekitWebhook.WebhookEvent.parseFrom(Base64.getDecoder().decode(payload.substring(separator + 1))));
+        } catch (InvalidProtocolBufferException | IllegalArgumentException e) {
+            log.warn("Dropping undecodable LiveKit room event", e);
+        }
+    }
+}
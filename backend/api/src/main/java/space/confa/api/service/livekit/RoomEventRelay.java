@@ -0,0 +1,8 @@
+package space.confa.api.service.livekit;
+
+import livekit.LivekitWebhook;
+import reactor.core.publisher.Mono;
+
+public interface RoomEventRelay {
+    Mono<Void> publish(LivekitWebhook.WebhookEvent event);
+}
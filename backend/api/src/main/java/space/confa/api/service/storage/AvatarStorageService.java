@@ -1,10 +1,19 @@
 package space.confa.api.service.storage;
 
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
 import java.time.Duration;
 
 public interface AvatarStorageService {
-    void putObject(String key, byte[] bytes, String contentType);
-    byte[] getObject(String key);
-    void deleteObject(String key);
+    String REMOTE = "remoteAvatarStorage";
+
+    Mono<Void> putObject(String key, byte[] bytes, String contentType);
+    Mono<Void> putObject(String key, Path file, String contentType);
+    Mono<ObjectStream> openObject(String key, String range);
+    Mono<ObjectMetadata> headObject(String key);
+    Mono<Void> copyObject(String sourceKey, String targetKey);
+    Mono<Void> deleteObject(String key);
     String generatePresignedGetUrl(String key, Duration ttl);
+    PresignedUpload generatePresignedPut(String key, String contentType, long contentLength, String checksumSha256, Duration ttl);
 }
@@ -0,0 +1,238 @@
+package space.confa.api.service.storage;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import space.confa.api.configuration.properties.AvatarProp;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "avatar.disk-cache", name = "enabled", havingValue = "true")
+public class DiskCachedAvatarStorageService implements AvatarStorageService {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final AvatarStorageService delegate;
+    private final Path directory;
+    private final AsyncCache<String, CachedObject> cache;
+
+    public DiskCachedAvatarStorageService(
+            @Qualifier(AvatarStorageService.REMOTE) AvatarStorageService delegate,
+            AvatarProp avatarProp,
+            MeterRegistry meterRegistry
+    ) {
+        AvatarProp.DiskCache props = avatarProp.diskCache();
+        this.delegate = delegate;
+        this.directory = Path.of(props.directory());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(props.maxBytes())
+                .weigher((String hash, CachedObject object) -> (int) Math.min(object.sizeBytes(), Integer.MAX_VALUE))
+                .removalListener((String hash, CachedObject object, RemovalCause cause) -> {
+                    if (object != null) {
+                        deleteQuietly(object.file());
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "media_disk_cache");
+    }
+
+    @PostConstruct
+    public void rebuildIndex() throws IOException {
+        Files.createDirectories(directory);
+        Map<String, CachedObject> latest = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                String[] parts = name.split("\\.", 3);
+                if (name.endsWith(TEMP_SUFFIX) || parts.length != 3) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                CachedObject object = new CachedObject(
+                        file,
+                        Files.size(file),
+                        URLDecoder.decode(parts[2], StandardCharsets.UTF_8),
+                        Files.getLastModifiedTime(file)
+                );
+                CachedObject previous = latest.get(parts[0]);
+                if (previous == null || previous.lastModified().compareTo(object.lastModified()) < 0) {
+                    latest.put(parts[0], object);
+                    if (previous != null) {
+                        deleteQuietly(previous.file());
+                    }
+                } else {
+                    deleteQuietly(file);
+                }
+            }
+        }
+        List<Map.Entry<String, CachedObject>> ordered = latest.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getValue().lastModified()))
+                .toList();
+        ordered.forEach(entry -> cache.put(entry.getKey(), CompletableFuture.completedFuture(entry.getValue())));
+        log.info("Rebuilt media disk cache index from {} files in {}", ordered.size(), directory);
+    }
+
+    @Override
+    public Mono<Void> putObject(String key, byte[] bytes, String contentType) {
+        return delegate.putObject(key, bytes, contentType)
+                .doOnSuccess(ignored -> invalidate(key));
+    }
+
+    @Override
+    public Mono<Void> putObject(String key, Path file, String contentType) {
+        return delegate.putObject(key, file, contentType)
+                .doOnSuccess(ignored -> invalidate(key));
+    }
+
+    @Override
+    public Mono<ObjectStream> openObject(String key, String range) {
+        if (key.startsWith(S3ObjectSupport.UPLOAD_PREFIX)) {
+            return delegate.openObject(key, range);
+        }
+        String hash = hash(key);
+        return Mono.fromFuture(() -> cache.get(hash, (ignored, executor) -> fill(hash, key).toFuture()), true)
+                .flatMap(object -> read(object, range)
+                        .onErrorResume(NoSuchFileException.class, error -> {
+                            cache.synchronous().invalidate(hash);
+                            return delegate.openObject(key, range);
+                        }));
+    }
+
+    @Override
+    public Mono<ObjectMetadata> headObject(String key) {
+        return delegate.headObject(key);
+    }
+
+    @Override
+    public Mono<Void> copyObject(String sourceKey, String targetKey) {
+        return delegate.copyObject(sourceKey, targetKey)
+                .doOnSuccess(ignored -> invalidate(targetKey));
+    }
+
+    @Override
+    public Mono<Void> deleteObject(String key) {
+        return delegate.deleteObject(key)
+                .doOnSuccess(ignored -> invalidate(key));
+    }
+
+    @Override
+    public String generatePresignedGetUrl(String key, Duration ttl) {
+        return delegate.generatePresignedGetUrl(key, ttl);
+    }
+
+    @Override
+    public PresignedUpload generatePresignedPut(String key, String contentType, long contentLength, String checksumSha256, Duration ttl) {
+        return delegate.generatePresignedPut(key, contentType, contentLength, checksumSha256, ttl);
+    }
+
+    private void invalidate(String key) {
+        cache.synchronous().invalidate(hash(key));
+    }
+
+    private Mono<CachedObject> fill(String hash, String key) {
+        return delegate.openObject(key, null)
+                .flatMap(object -> {
+                    String contentType = object.contentType() == null ? DEFAULT_CONTENT_TYPE : object.contentType();
+                    Path target = directory.resolve(hash + "." + UUID.randomUUID() + "."
+                            + URLEncoder.encode(contentType, StandardCharsets.UTF_8));
+                    Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+                    return DataBufferUtils.write(object.content(), temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)
+                            .then(Mono.fromCallable(() -> {
+                                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                                return new CachedObject(target, Files.size(target), contentType, Files.getLastModifiedTime(target));
+                            }).subscribeOn(Schedulers.boundedElastic()))
+                            .doOnError(error -> deleteQuietly(temp));
+                });
+    }
+
+    private Mono<ObjectStream> read(CachedObject object, String range) {
+        return Mono.fromCallable(() -> {
+                    long length = object.sizeBytes();
+                    long start = 0;
+                    long end = length - 1;
+                    String contentRange = null;
+                    if (range != null) {
+                        try {
+                            HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+                            start = httpRange.getRangeStart(length);
+                            end = httpRange.getRangeEnd(length);
+                        } catch (IllegalArgumentException e) {
+                            throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Range not satisfiable");
+                        }
+                        contentRange = "bytes " + start + "-" + end + "/" + length;
+                    }
+                    long count = length == 0 ? 0 : end - start + 1;
+                    ByteBuffer mapped;
+                    try (FileChannel channel = FileChannel.open(object.file(), StandardOpenOption.READ)) {
+                        mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, count);
+                    }
+                    Files.setLastModifiedTime(object.file(), FileTime.fromMillis(System.currentTimeMillis()));
+                    DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(mapped);
+                    return new ObjectStream(Flux.just(buffer), count, contentRange, object.contentType());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached media file {}", file, e);
+        }
+    }
+
+    private String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedObject(Path file, long sizeBytes, String contentType, FileTime lastModified) {}
+}
@@ -0,0 +1,87 @@
+package space.confa.api.service.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ObjectContentService {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    private final AvatarStorageService avatarStorageService;
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> serve(
+            ServerWebExchange exchange,
+            String objectKey,
+            String contentType,
+            String checksumSha256
+    ) {
+        String etag = checksumSha256 == null ? null : "\"" + checksumSha256 + "\"";
+        if (etag != null && exchange.checkNotModified(etag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CACHE_CONTROL)
+                    .build());
+        }
+
+        String range = resolveRange(exchange.getRequest().getHeaders(), etag);
+        return avatarStorageService.openObject(objectKey, range)
+                .map(object -> {
+                    ResponseEntity.BodyBuilder builder = object.contentRange() == null
+                            ? ResponseEntity.ok()
+                            : ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                            .header(HttpHeaders.CONTENT_RANGE, object.contentRange());
+                    if (etag != null) {
+                        builder.eTag(etag);
+                    }
+                    return builder
+                            .cacheControl(CACHE_CONTROL)
+                            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                            .contentType(MediaType.parseMediaType(contentType))
+                            .contentLength(object.contentLength())
+                            .body(object.content());
+                })
+                .onErrorMap(error -> !(error instanceof ResponseStatusException), error -> {
+                    if (error instanceof S3Exception s3 && s3.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                        return new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Range not satisfiable");
+                    }
+                    log.warn("Failed to open object content key={}", objectKey, error);
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Content not found");
+                });
+    }
+
+    private String resolveRange(HttpHeaders headers, String etag) {
+        String rangeHeader = headers.getFirst(HttpHeaders.RANGE);
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return null;
+        }
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? HttpRange.toString(ranges) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package space.confa.api.service.storage;
+
+public record ObjectMetadata(
+        long contentLength,
+        String contentType,
+        String checksumSha256
+) {}
@@ -0,0 +1,11 @@
+package space.confa.api.service.storage;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+public record ObjectStream(
+        Flux<DataBuffer> content,
+        long contentLength,
+        String contentRange,
+        String contentType
+) {}
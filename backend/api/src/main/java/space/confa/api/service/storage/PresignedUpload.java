@@ -0,0 +1,11 @@
+package space.confa.api.service.storage;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record PresignedUpload(
+        String url,
+        String method,
+        Map<String, String> headers,
+        Instant expiresAt
+) {}
@@ -0,0 +1,148 @@
+package space.confa.api.service.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import space.confa.api.configuration.properties.AvatarProp;
+import space.confa.api.service.cache.PresignedUrlCache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Qualifier(AvatarStorageService.REMOTE)
+@ConditionalOnProperty(prefix = "avatar.storage", name = "client", havingValue = "async", matchIfMissing = true)
+public class S3AsyncAvatarStorageService implements AvatarStorageService {
+
+    private final S3AsyncClient avatarS3AsyncClient;
+    private final S3ObjectSupport s3ObjectSupport;
+    private final AvatarProp avatarProp;
+    private final PresignedUrlCache presignedUrlCache;
+
+    @PostConstruct
+    public void ensureBucketExists() {
+        String bucket = avatarProp.storage().bucket();
+        try {
+            avatarS3AsyncClient.headBucket(HeadBucketRequest.builder().bucket(bucket).build()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NoSuchBucketException) {
+                avatarS3AsyncClient.createBucket(CreateBucketRequest.builder().bucket(bucket).build()).join();
+                log.info("Created avatar bucket {}", bucket);
+            } else {
+                log.warn("Failed to verify/create avatar bucket {}", bucket, e.getCause());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to verify/create avatar bucket {}", bucket, e);
+        }
+        try {
+            avatarS3AsyncClient.putBucketLifecycleConfiguration(s3ObjectSupport.uploadLifecycleRequest()).join();
+        } catch (Exception e) {
+            log.warn("Failed to apply upload expiration rule to bucket {}", bucket, e);
+        }
+    }
+
+    @Override
+    public Mono<Void> putObject(String key, byte[] bytes, String contentType) {
+        return Mono.fromFuture(() -> avatarS3AsyncClient.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(avatarProp.storage().bucket())
+                                .key(key)
+                                .contentType(contentType)
+                                .contentLength((long) bytes.length)
+                                .build(),
+                        AsyncRequestBody.fromBytes(bytes)
+                ))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> putObject(String key, Path file, String contentType) {
+        return Mono.fromFuture(() -> avatarS3AsyncClient.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(avatarProp.storage().bucket())
+                                .key(key)
+                                .contentType(contentType)
+                                .build(),
+                        AsyncRequestBody.fromFile(file)
+                ))
+                .then();
+    }
+
+    @Override
+    public Mono<ObjectStream> openObject(String key, String range) {
+        return Mono.fromFuture(() -> avatarS3AsyncClient.getObject(
+                        GetObjectRequest.builder()
+                                .bucket(avatarProp.storage().bucket())
+                                .key(key)
+                                .range(range)
+                                .build(),
+                        AsyncResponseTransformer.toPublisher()
+                ))
+                .map(publisher -> {
+                    GetObjectResponse response = publisher.response();
+                    return new ObjectStream(
+                            Flux.from(publisher).map(DefaultDataBufferFactory.sharedInstance::wrap),
+                            response.contentLength(),
+                            response.contentRange(),
+                            response.contentType()
+                    );
+                });
+    }
+
+    @Override
+    public Mono<ObjectMetadata> headObject(String key) {
+        return Mono.fromFuture(() -> avatarS3AsyncClient.headObject(s3ObjectSupport.headRequest(key)))
+                .map(s3ObjectSupport::metadata);
+    }
+
+    @Override
+    public Mono<Void> copyObject(String sourceKey, String targetKey) {
+        return Mono.fromFuture(() -> avatarS3AsyncClient.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(avatarProp.storage().bucket())
+                        .sourceKey(sourceKey)
+                        .destinationBucket(avatarProp.storage().bucket())
+                        .destinationKey(targetKey)
+                        .build()))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteObject(String key) {
+        return Mono.fromFuture(() -> avatarS3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                        .bucket(avatarProp.storage().bucket())
+                        .key(key)
+                        .build()))
+                .doOnSuccess(ignored -> presignedUrlCache.invalidate(key))
+                .then();
+    }
+
+    @Override
+    public String generatePresignedGetUrl(String key, Duration ttl) {
+        return s3ObjectSupport.presignedGetUrl(key, ttl);
+    }
+
+    @Override
+    public PresignedUpload generatePresignedPut(String key, String contentType, long contentLength, String checksumSha256, Duration ttl) {
+        return s3ObjectSupport.presignedPut(key, contentType, contentLength, checksumSha256, ttl);
+    }
+}
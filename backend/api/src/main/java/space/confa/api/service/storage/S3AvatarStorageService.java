@@ -2,11 +2,17 @@ package space.confa.api.service.storage;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
-import software.amazon.awssdk.core.ResponseBytes;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
 import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
@@ -14,20 +20,25 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
 import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import space.confa.api.configuration.properties.AvatarProp;
+import space.confa.api.service.cache.PresignedUrlCache;
 
+import java.nio.file.Path;
 import java.time.Duration;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Qualifier(AvatarStorageService.REMOTE)
+@ConditionalOnProperty(prefix = "avatar.storage", name = "client", havingValue = "sync")
 public class S3AvatarStorageService implements AvatarStorageService {
 
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private final S3Client avatarS3Client;
-    private final S3Presigner avatarS3Presigner;
+    private final S3ObjectSupport s3ObjectSupport;
     private final AvatarProp avatarProp;
+    private final PresignedUrlCache presignedUrlCache;
 
     @PostConstruct
     public void ensureBucketExists() {
@@ -40,49 +51,101 @@ public class S3AvatarStorageService implements AvatarStorageService {
         } catch (Exception e) {
             log.warn("Failed to verify/create avatar bucket {}", bucket, e);
         }
+        try {
+            avatarS3Client.putBucketLifecycleConfiguration(s3ObjectSupport.uploadLifecycleRequest());
+        } catch (Exception e) {
+            log.warn("Failed to apply upload expiration rule to bucket {}", bucket, e);
+        }
     }
 
     @Override
-    public void putObject(String key, byte[] bytes, String contentType) {
-        avatarS3Client.putObject(
-                PutObjectRequest.builder()
-                        .bucket(avatarProp.storage().bucket())
-                        .key(key)
-                        .contentType(contentType)
-                        .contentLength((long) bytes.length)
-                        .build(),
-                RequestBody.fromBytes(bytes)
-        );
+    public Mono<Void> putObject(String key, byte[] bytes, String contentType) {
+        return Mono.fromRunnable(() -> avatarS3Client.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(avatarProp.storage().bucket())
+                                .key(key)
+                                .contentType(contentType)
+                                .contentLength((long) bytes.length)
+                                .build(),
+                        RequestBody.fromBytes(bytes)
+                ))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
     }
 
     @Override
-    public byte[] getObject(String key) {
-        ResponseBytes<GetObjectResponse> bytes = avatarS3Client.getObjectAsBytes(
-                GetObjectRequest.builder()
+    public Mono<Void> putObject(String key, Path file, String contentType) {
+        return Mono.fromRunnable(() -> avatarS3Client.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(avatarProp.storage().bucket())
+                                .key(key)
+                                .contentType(contentType)
+                                .build(),
+                        RequestBody.fromFile(file)
+                ))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<ObjectStream> openObject(String key, String range) {
+        return Mono.fromCallable(() -> avatarS3Client.getObject(GetObjectRequest.builder()
                         .bucket(avatarProp.storage().bucket())
                         .key(key)
-                        .build()
-        );
-        return bytes.asByteArray();
+                        .range(range)
+                        .build()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(stream -> {
+                    GetObjectResponse response = stream.response();
+                    return new ObjectStream(
+                            DataBufferUtils.readInputStream(() -> stream, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                                    .subscribeOn(Schedulers.boundedElastic()),
+                            response.contentLength(),
+                            response.contentRange(),
+                            response.contentType()
+                    );
+                });
+    }
+
+    @Override
+    public Mono<ObjectMetadata> headObject(String key) {
+        return Mono.fromCallable(() -> avatarS3Client.headObject(s3ObjectSupport.headRequest(key)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(s3ObjectSupport::metadata);
+    }
+
+    @Override
+    public Mono<Void> copyObject(String sourceKey, String targetKey) {
+        return Mono.fromRunnable(() -> avatarS3Client.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(avatarProp.storage().bucket())
+                        .sourceKey(sourceKey)
+                        .destinationBucket(avatarProp.storage().bucket())
+                        .destinationKey(targetKey)
+                        .build()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
     }
 
     @Override
-    public void deleteObject(String key) {
-        avatarS3Client.deleteObject(DeleteObjectRequest.builder()
-                .bucket(avatarProp.storage().bucket())
-                .key(key)
-                .build());
+    public Mono<Void> deleteObject(String key) {
+        return Mono.fromRunnable(() -> {
+                    avatarS3Client.deleteObject(DeleteObjectRequest.builder()
+                            .bucket(avatarProp.storage().bucket())
+                            .key(key)
+                            .build());
+                    presignedUrlCache.invalidate(key);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
     }
 
     @Override
     public String generatePresignedGetUrl(String key, Duration ttl) {
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                .signatureDuration(ttl)
-                .getObjectRequest(GetObjectRequest.builder()
-                        .bucket(avatarProp.storage().bucket())
-                        .key(key)
-                        .build())
-                .build();
-        return avatarS3Presigner.presignGetObject(presignRequest).url().toString();
+        return s3ObjectSupport.presignedGetUrl(key, ttl);
+    }
+
+    @Override
+    public PresignedUpload generatePresignedPut(String key, String contentType, long contentLength, String checksumSha256, Duration ttl) {
+        return s3ObjectSupport.presignedPut(key, contentType, contentLength, checksumSha256, ttl);
     }
 }
@@ -0,0 +1,116 @@
+package space.confa.api.service.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.AbortIncompleteMultipartUpload;
+import software.amazon.awssdk.services.s3.model.BucketLifecycleConfiguration;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.ExpirationStatus;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.LifecycleExpiration;
+import software.amazon.awssdk.services.s3.model.LifecycleRule;
+import software.amazon.awssdk.services.s3.model.LifecycleRuleFilter;
+import software.amazon.awssdk.services.s3.model.PutBucketLifecycleConfigurationRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import space.confa.api.configuration.properties.AvatarProp;
+import space.confa.api.service.cache.PresignedUrlCache;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request building and presigning shared by the sync and async S3 storage backends.
+ */
+@Component
+@RequiredArgsConstructor
+public class S3ObjectSupport {
+
+    public static final String UPLOAD_PREFIX = "uploads/";
+
+    private static final String UPLOAD_RULE_ID = "expire-unfinalized-uploads";
+
+    private final S3Presigner avatarS3Presigner;
+    private final AvatarProp avatarProp;
+    private final PresignedUrlCache presignedUrlCache;
+
+    public String bucket() {
+        return avatarProp.storage().bucket();
+    }
+
+    public HeadObjectRequest headRequest(String key) {
+        return HeadObjectRequest.builder()
+                .bucket(bucket())
+                .key(key)
+                .checksumMode(ChecksumMode.ENABLED)
+                .build();
+    }
+
+    public ObjectMetadata metadata(HeadObjectResponse response) {
+        return new ObjectMetadata(
+                response.contentLength(),
+                response.contentType(),
+                response.checksumSHA256() == null
+                        ? null
+                        : HexFormat.of().formatHex(Base64.getDecoder().decode(response.checksumSHA256()))
+        );
+    }
+
+    public PutBucketLifecycleConfigurationRequest uploadLifecycleRequest() {
+        int days = Math.max(1, avatarProp.uploadExpirationDays());
+        return PutBucketLifecycleConfigurationRequest.builder()
+                .bucket(bucket())
+                .lifecycleConfiguration(BucketLifecycleConfiguration.builder()
+                        .rules(LifecycleRule.builder()
+                                .id(UPLOAD_RULE_ID)
+                                .filter(LifecycleRuleFilter.builder().prefix(UPLOAD_PREFIX).build())
+                                .status(ExpirationStatus.ENABLED)
+                                .expiration(LifecycleExpiration.builder().days(days).build())
+                                .abortIncompleteMultipartUpload(AbortIncompleteMultipartUpload.builder()
+                                        .daysAfterInitiation(days)
+                                        .build())
+                                .build())
+                        .build())
+                .build();
+    }
+
+    public String presignedGetUrl(String key, Duration ttl) {
+        return presignedUrlCache.get(key, ttl, () -> avatarS3Presigner.presignGetObject(GetObjectPresignRequest.builder()
+                        .signatureDuration(ttl)
+                        .getObjectRequest(GetObjectRequest.builder()
+                                .bucket(bucket())
+                                .key(key)
+                                .build())
+                        .build())
+                .url()
+                .toString());
+    }
+
+    public PresignedUpload presignedPut(String key, String contentType, long contentLength, String checksumSha256, Duration ttl) {
+        PresignedPutObjectRequest presigned = avatarS3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .putObjectRequest(PutObjectRequest.builder()
+                        .bucket(bucket())
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength(contentLength)
+                        .checksumSHA256(Base64.getEncoder().encodeToString(HexFormat.of().parseHex(checksumSha256)))
+                        .build())
+                .build());
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("host")) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return new PresignedUpload(presigned.url().toString(), presigned.httpRequest().method().name(), headers, presigned.expiration());
+    }
+}
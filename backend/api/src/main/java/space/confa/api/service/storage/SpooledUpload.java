@@ -0,0 +1,9 @@
+package space.confa.api.service.storage;
+
+import java.nio.file.Path;
+
+public record SpooledUpload(
+        Path file,
+        long sizeBytes,
+        String checksumSha256
+) {}
@@ -0,0 +1,134 @@
+package space.confa.api.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class UploadSpooler {
+
+    public <T> Mono<T> spool(
+            Flux<DataBuffer> content,
+            long maxBytes,
+            String limitMessage,
+            Function<SpooledUpload, Mono<T>> consumer
+    ) {
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> Files.createTempFile("confa-upload-", ".part"))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                file -> write(content, file, maxBytes, limitMessage).flatMap(consumer),
+                this::delete
+        );
+    }
+
+    /**
+     * Materializes only the first {@code headBytes} and last {@code tailBytes} of an object into a sparse file of
+     * its full size, so parsers that seek to either end see the real offsets without the middle being fetched.
+     */
+    public <T> Mono<T> sample(
+            long sizeBytes,
+            long headBytes,
+            long tailBytes,
+            BiFunction<Long, Long, Flux<DataBuffer>> reader,
+            Function<Path, Mono<T>> consumer
+    ) {
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> Files.createTempFile("confa-sample-", ".part"))
+                        .subscribeOn(Schedulers.boundedElastic()),
+                file -> writeRanges(file, sizeBytes, headBytes, tailBytes, reader).then(Mono.defer(() -> consumer.apply(file))),
+                this::delete
+        );
+    }
+
+    private Mono<Void> writeRanges(
+            Path file,
+            long sizeBytes,
+            long headBytes,
+            long tailBytes,
+            BiFunction<Long, Long, Flux<DataBuffer>> reader
+    ) {
+        if (sizeBytes <= 0) {
+            return Mono.empty();
+        }
+        List<long[]> ranges = sizeBytes <= headBytes + tailBytes
+                ? List.of(new long[]{0, sizeBytes - 1})
+                : List.of(new long[]{0, headBytes - 1}, new long[]{sizeBytes - tailBytes, sizeBytes - 1});
+        return Mono.using(
+                () -> AsynchronousFileChannel.open(file, StandardOpenOption.WRITE),
+                channel -> Flux.fromIterable(ranges)
+                        .concatMap(range -> DataBufferUtils.write(reader.apply(range[0], range[1]), channel, range[0])
+                                .doOnNext(DataBufferUtils::release))
+                        .then(),
+                channel -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        log.warn("Failed to close sampled upload {}", file, e);
+                    }
+                }
+        );
+    }
+
+    private Mono<SpooledUpload> write(Flux<DataBuffer> content, Path file, long maxBytes, String limitMessage) {
+        return Mono.defer(() -> {
+            MessageDigest digest = sha256();
+            AtomicLong size = new AtomicLong();
+            Flux<DataBuffer> checked = content.handle((buffer, sink) -> {
+                if (size.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                    DataBufferUtils.release(buffer);
+                    sink.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, limitMessage));
+                    return;
+                }
+                try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                    iterator.forEachRemaining(digest::update);
+                }
+                sink.next(buffer);
+            });
+            return DataBufferUtils.write(checked, file, StandardOpenOption.WRITE)
+                    .then(Mono.fromSupplier(() -> new SpooledUpload(
+                            file,
+                            size.get(),
+                            HexFormat.of().formatHex(digest.digest())
+                    )));
+        });
+    }
+
+    private Mono<Void> delete(Path file) {
+        return Mono.<Void>fromRunnable(() -> {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        log.warn("Failed to delete spooled upload {}", file, e);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016090000
+-- comment: per-user unread counters maintained on message writes
+
+create table channel_unread_counter
+(
+    channel_id   bigint                    not null,
+    user_id      bigint                    not null,
+    unread_count bigint default 0          not null,
+    updated_at   timestamp default CURRENT_TIMESTAMP null on update CURRENT_TIMESTAMP,
+    primary key (channel_id, user_id),
+    constraint fk_unread_counter_channel foreign key (channel_id) references channel (id),
+    constraint fk_unread_counter_user foreign key (user_id) references user (id)
+) engine = InnoDB;
+
+create index idx_unread_counter_user on channel_unread_counter (user_id);
+
+insert into channel_unread_counter (channel_id, user_id, unread_count)
+select r.channel_id,
+       r.user_id,
+       (select count(*)
+        from message m
+        where m.channel_id = r.channel_id
+          and m.deleted_at is null
+          and m.sender_user_id is not null
+          and m.sender_user_id <> r.user_id
+          and (crs.last_read_message_id is null or m.id > crs.last_read_message_id))
+from (select c.id as channel_id, wm.user_id
+      from channel c
+               join workspace_member wm on wm.workspace_id = c.workspace_id
+      union
+      select cm.channel_id, cm.user_id
+      from channel_member cm) r
+         left join channel_read_state crs on crs.channel_id = r.channel_id and crs.user_id = r.user_id;
@@ -0,0 +1,28 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016091500
+-- comment: denormalized last message pointer on channel and per-member activity for dm ordering
+
+alter table channel
+    add column last_message_id      bigint       null after created_by_user_id,
+    add column last_message_at      timestamp    null after last_message_id,
+    add column last_message_preview varchar(255) null after last_message_at;
+
+alter table channel_member
+    add column last_activity_at timestamp default CURRENT_TIMESTAMP not null after joined_at;
+
+create index idx_channel_member_user_activity on channel_member (user_id, last_activity_at, channel_id);
+
+update channel c
+    join (select channel_id, max(id) as message_id
+          from message
+          where deleted_at is null
+          group by channel_id) lm on lm.channel_id = c.id
+    join message m on m.id = lm.message_id
+set c.last_message_id      = m.id,
+    c.last_message_at      = m.created_at,
+    c.last_message_preview = left(m.body, 255),
+    c.updated_at           = c.updated_at;
+
+update channel_member cm
+    join channel c on c.id = cm.channel_id
+set cm.last_activity_at = coalesce(c.last_message_at, c.created_at, cm.joined_at);
@@ -0,0 +1,18 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016093000
+-- comment: materialized reaction counts per message and emoji
+
+create table message_reaction_summary
+(
+    message_id     bigint                    not null,
+    emoji          varchar(32)               not null,
+    reaction_count bigint default 0          not null,
+    updated_at     timestamp default CURRENT_TIMESTAMP null on update CURRENT_TIMESTAMP,
+    primary key (message_id, emoji),
+    constraint fk_message_reaction_summary_message foreign key (message_id) references message (id)
+) engine = InnoDB;
+
+insert into message_reaction_summary (message_id, emoji, reaction_count)
+select message_id, emoji, count(*)
+from message_reaction
+group by message_id, emoji;
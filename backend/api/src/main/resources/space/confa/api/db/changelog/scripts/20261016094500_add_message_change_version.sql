@@ -0,0 +1,21 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016094500
+-- comment: per-channel monotonic change version for message delta sync
+
+alter table channel
+    add column change_version bigint default 0 not null after last_message_preview;
+
+alter table message
+    add column change_version bigint default 0 not null after deleted_by_user_id;
+
+update message
+set change_version = id;
+
+update channel c
+    join (select channel_id, max(id) as max_id
+          from message
+          group by channel_id) mv on mv.channel_id = c.id
+set c.change_version = mv.max_id,
+    c.updated_at     = c.updated_at;
+
+create index idx_message_channel_change_version on message (channel_id, change_version);
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016100000
+-- comment: sound clip content checksum for ETag validation
+
+alter table sound_clip
+    add column checksum_sha256 char(64) null after size_bytes;
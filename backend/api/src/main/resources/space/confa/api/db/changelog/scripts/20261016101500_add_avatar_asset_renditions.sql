@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016101500
+-- comment: downscaled avatar renditions stored next to the full png
+
+alter table avatar_asset
+    add column rendition_sizes varchar(64) null after key_png;
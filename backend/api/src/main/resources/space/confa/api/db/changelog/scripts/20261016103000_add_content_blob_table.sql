@@ -0,0 +1,28 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016103000
+-- comment: content-addressed blob registry with reference counts
+
+create table content_blob
+(
+    id                 bigint auto_increment primary key,
+    kind               enum('AVATAR','SOUND')              not null,
+    checksum_sha256    char(64)                            not null,
+    processing_version int                                 not null,
+    object_key         varchar(512)                        not null,
+    ref_count          bigint    default 0                 not null,
+    created_at         timestamp default CURRENT_TIMESTAMP null,
+    updated_at         timestamp default CURRENT_TIMESTAMP null on update CURRENT_TIMESTAMP,
+    constraint unique_content_blob unique (kind, checksum_sha256, processing_version)
+) engine = InnoDB;
+
+alter table avatar_asset
+    add column processing_version int null after rendition_sizes;
+
+create index idx_avatar_asset_checksum on avatar_asset (checksum_sha256, processing_version);
+
+insert into content_blob (kind, checksum_sha256, processing_version, object_key, ref_count)
+select 'SOUND', sc.checksum_sha256, 0, min(sc.object_key), count(*)
+from sound_clip sc
+where sc.checksum_sha256 is not null
+  and sc.deleted_at is null
+group by sc.checksum_sha256;
@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016104500
+-- comment: add compact playback rendition to sound clips
+
+alter table sound_clip
+    add column playback_object_key   varchar(512) null after object_key,
+    add column playback_content_type varchar(128) null after playback_object_key;
@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016110000
+-- comment: staged upload key recorded on finalize so each direct upload is finalized at most once
+
+alter table avatar_asset
+    add column upload_key varchar(512) null after created_by_user_id,
+    add constraint unique_avatar_asset_upload_key unique (upload_key);
+
+alter table sound_clip
+    add column upload_key varchar(512) null after duration_ms,
+    add constraint unique_sound_clip_upload_key unique (upload_key);
@@ -0,0 +1,30 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016111500
+-- comment: point every sound clip at its registered blob and queue the duplicate objects for deletion
+
+create table storage_object_orphan
+(
+    id         bigint auto_increment primary key,
+    object_key varchar(512)                        not null,
+    created_at timestamp default CURRENT_TIMESTAMP null,
+    constraint unique_storage_object_orphan unique (object_key)
+) engine = InnoDB;
+
+insert ignore into storage_object_orphan (object_key)
+select distinct sc.object_key
+from sound_clip sc
+         join content_blob cb
+              on cb.kind = 'SOUND'
+                  and cb.checksum_sha256 = sc.checksum_sha256
+                  and cb.processing_version = 0
+where sc.deleted_at is null
+  and sc.object_key <> cb.object_key;
+
+update sound_clip sc
+    join content_blob cb
+    on cb.kind = 'SOUND'
+        and cb.checksum_sha256 = sc.checksum_sha256
+        and cb.processing_version = 0
+set sc.object_key = cb.object_key
+where sc.deleted_at is null
+  and sc.object_key <> cb.object_key;
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016113000
+-- comment: size of the playback rendition so listings report the bytes actually served
+
+alter table sound_clip
+    add column playback_size_bytes bigint null after playback_content_type;
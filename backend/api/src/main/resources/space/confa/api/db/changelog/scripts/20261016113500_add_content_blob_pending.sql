@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+-- changeset Aleksandr505:20261016113500
+-- comment: blobs stay pending until their first uploader has written the objects
+
+alter table content_blob
+    add column pending boolean default false not null after ref_count;
@@ -0,0 +1,130 @@
+package space.confa.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import space.confa.api.configuration.properties.MessengerProp;
+import space.confa.api.model.domain.MessengerEventType;
+import space.confa.api.model.dto.response.MessageReactionDto;
+import space.confa.api.model.dto.response.MessengerEventDto;
+import space.confa.api.model.dto.response.ReactionCountDto;
+import space.confa.api.service.event.InMemoryMessengerEventBus;
+import space.confa.api.service.event.MessengerEventBus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessengerEventServiceTest {
+
+    private static final long USER_ID = 1L;
+    private static final long CHANNEL_ID = 10L;
+    private static final long QUIET_CHANNEL_ID = 20L;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private MessengerEventBus bus;
+    private MessengerEventService service;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void setUp() {
+        bus = new InMemoryMessengerEventBus(new MessengerProp(
+                new MessengerProp.Events("in-memory", 1000, Duration.ofHours(1), 500),
+                null,
+                null,
+                null,
+                null
+        ));
+        DatabaseClient databaseClient = mock(DatabaseClient.class, RETURNS_DEEP_STUBS);
+        when(databaseClient.sql(anyString()).bind(anyString(), any()).map(any(BiFunction.class)).all())
+                .thenReturn((Flux) Flux.just(CHANNEL_ID, QUIET_CHANNEL_ID));
+        MessengerVersionService versionService = mock(MessengerVersionService.class);
+        when(versionService.channelChanged(any(), anyBoolean())).thenReturn(Mono.empty());
+        service = new MessengerEventService(bus, versionService, databaseClient);
+    }
+
+    @Test
+    void resumesEveryTopicFromItsOwnCursor() {
+        List<MessengerEventService.StreamedEvent> delivered = new ArrayList<>();
+        StepVerifier.create(service.streamForUser(USER_ID, null))
+                .then(() -> bus.publishToChannel(CHANNEL_ID, event(CHANNEL_ID, 100L)).block())
+                .consumeNextWith(delivered::add)
+                .then(() -> bus.publishToUser(USER_ID, event(CHANNEL_ID, 101L)).block())
+                .consumeNextWith(delivered::add)
+                .thenCancel()
+                .verify(TIMEOUT);
+
+        bus.publishToChannel(CHANNEL_ID, event(CHANNEL_ID, 102L)).block();
+        bus.publishToChannel(QUIET_CHANNEL_ID, event(QUIET_CHANNEL_ID, 103L)).block();
+        bus.publishToUser(USER_ID, event(CHANNEL_ID, 104L)).block();
+
+        String cursor = delivered.getLast().cursor();
+        List<Long> replayed = new ArrayList<>();
+        StepVerifier.create(service.streamForUser(USER_ID, cursor))
+                .recordWith(ArrayList::new)
+                .expectNextCount(3)
+                .consumeRecordedWith(events -> events.forEach(streamed -> replayed.add(streamed.event().messageId())))
+                .thenCancel()
+                .verify(TIMEOUT);
+
+        assertThat(replayed).containsExactlyInAnyOrder(102L, 103L, 104L);
+    }
+
+    @Test
+    void ignoresMalformedLastEventId() {
+        StepVerifier.create(service.streamForUser(USER_ID, "1700000000000-0"))
+                .then(() -> bus.publishToChannel(CHANNEL_ID, event(CHANNEL_ID, 200L)).block())
+                .assertNext(streamed -> {
+                    assertThat(streamed.event().messageId()).isEqualTo(200L);
+                    assertThat(streamed.cursor()).contains("c" + CHANNEL_ID + "=");
+                })
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void broadcastsReactionCountsWithoutTheActorsView() {
+        List<MessageReactionDto> actorView = List.of(
+                new MessageReactionDto("+1", 2, true),
+                new MessageReactionDto("tada", 1, false)
+        );
+
+        StepVerifier.create(service.streamForUser(USER_ID, null))
+                .then(() -> service.reactionsUpdated(CHANNEL_ID, 300L, 2L, actorView).block())
+                .assertNext(streamed -> {
+                    assertThat(streamed.event().reactions())
+                            .containsExactly(new ReactionCountDto("+1", 2), new ReactionCountDto("tada", 1));
+                    assertThat(streamed.event().actorReactions()).containsExactly("+1");
+                })
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    private MessengerEventDto event(Long channelId, Long messageId) {
+        return new MessengerEventDto(
+                null,
+                MessengerEventType.MESSAGE_CREATED,
+                channelId,
+                messageId,
+                2L,
+                null,
+                null,
+                null,
+                null,
+                Instant.now()
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package space.confa.api.service.event;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessengerEventCursorTest {
+
+    private static final long SINCE = 1_000;
+
+    @Test
+    void keepsOnlyTheMostRecentlyAdvancedChannelTopics() {
+        MessengerEventCursor cursor = MessengerEventCursor.startingAt(SINCE)
+                .advance(MessengerEventCursor.userTopic(), MessengerEventIds.of(2_000, 0));
+        for (long channelId = 1; channelId <= MessengerEventCursor.MAX_CHANNEL_TOPICS + 1; channelId++) {
+            cursor = cursor.advance(MessengerEventCursor.channelTopic(channelId), MessengerEventIds.of(2_000 + channelId, 0));
+        }
+
+        MessengerEventCursor resumed = MessengerEventCursor.parse(cursor.format()).orElseThrow();
+
+        assertThat(resumed.resumeId(MessengerEventCursor.channelTopic(1L)))
+                .isEqualTo(MessengerEventCursor.startingAt(SINCE).resumeId(MessengerEventCursor.channelTopic(1L)));
+        assertThat(resumed.resumeId(MessengerEventCursor.channelTopic(2L))).isEqualTo(MessengerEventIds.of(2_002, 0));
+        assertThat(resumed.resumeId(MessengerEventCursor.userTopic())).isEqualTo(MessengerEventIds.of(2_000, 0));
+    }
+
+    @Test
+    void advancingATopicRefreshesItsRecency() {
+        MessengerEventCursor cursor = MessengerEventCursor.startingAt(SINCE);
+        for (long channelId = 1; channelId <= MessengerEventCursor.MAX_CHANNEL_TOPICS; channelId++) {
+            cursor = cursor.advance(MessengerEventCursor.channelTopic(channelId), MessengerEventIds.of(2_000 + channelId, 0));
+        }
+
+        cursor = cursor.advance(MessengerEventCursor.channelTopic(1L), MessengerEventIds.of(3_000, 0))
+                .advance(MessengerEventCursor.channelTopic(100L), MessengerEventIds.of(3_001, 0));
+
+        assertThat(cursor.resumeId(MessengerEventCursor.channelTopic(1L))).isEqualTo(MessengerEventIds.of(3_000, 0));
+        assertThat(cursor.resumeId(MessengerEventCursor.channelTopic(2L)))
+                .isEqualTo(MessengerEventCursor.startingAt(SINCE).resumeId(MessengerEventCursor.channelTopic(2L)));
+    }
+}
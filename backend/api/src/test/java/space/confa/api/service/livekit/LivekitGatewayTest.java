@@ -0,0 +1,235 @@
+package space.confa.api.service.livekit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.livekit.server.AgentDispatchServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import livekit.LivekitModels;
+import livekit.LivekitRoom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+import space.confa.api.configuration.AgentConfiguration;
+import space.confa.api.configuration.properties.LivekitProp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the real LiveKit Twirp client against a stub server so status handling and circuit breaking are exercised
+ * end to end.
+ */
+class LivekitGatewayTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration OPEN_DURATION = Duration.ofMillis(200);
+    private static final int MAX_CONCURRENT_CALLS = 8;
+
+    private final Map<String, Integer> statuses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final CountDownLatch releaseBlocked = new CountDownLatch(1);
+    private final Semaphore blockedArrivals = new Semaphore(0);
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/twirp/livekit.RoomService/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        releaseBlocked.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsBodyOnSuccess() {
+        LivekitGateway gateway = gateway(3);
+
+        StepVerifier.create(gateway.listRooms(null))
+                .assertNext(rooms -> assertThat(rooms).extracting(LivekitModels.Room::getName).containsExactly("lobby"))
+                .verifyComplete();
+    }
+
+    @Test
+    void mapsNotFoundToEmptyForLookupsOnly() {
+        statuses.put("ListParticipants", 404);
+        statuses.put("RemoveParticipant", 404);
+        LivekitGateway gateway = gateway(3);
+
+        StepVerifier.create(gateway.listParticipants("lobby"))
+                .assertNext(participants -> assertThat(participants).isEmpty())
+                .verifyComplete();
+        StepVerifier.create(gateway.removeParticipant("lobby", "alice"))
+                .expectErrorSatisfies(error -> assertThat(status(error)).isEqualTo(HttpStatus.NOT_FOUND))
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void failsOnClientErrorsWithoutOpeningTheCircuit() {
+        statuses.put("UpdateRoomMetadata", 400);
+        LivekitGateway gateway = gateway(1);
+
+        StepVerifier.create(gateway.updateRoomMetadata("lobby", "{}"))
+                .expectErrorSatisfies(error -> assertThat(status(error)).isEqualTo(HttpStatus.BAD_GATEWAY))
+                .verify(TIMEOUT);
+        StepVerifier.create(gateway.listRooms(null))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void opensAfterServerErrorsAndRecoversThroughOneTrial() throws InterruptedException {
+        statuses.put("UpdateRoomMetadata", 500);
+        LivekitGateway gateway = gateway(2);
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(gateway.updateRoomMetadata("lobby", "{}"))
+                    .expectErrorSatisfies(error -> assertThat(status(error)).isEqualTo(HttpStatus.BAD_GATEWAY))
+                    .verify(TIMEOUT);
+        }
+        StepVerifier.create(gateway.listRooms(null))
+                .expectErrorSatisfies(error -> assertThat(status(error)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .verify(TIMEOUT);
+        assertThat(hits("ListRooms")).isZero();
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        StepVerifier.create(gateway.listRooms(null))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(gateway.listRooms(null))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void cancellingAnOrdinaryCallKeepsTheTrialExclusive() throws InterruptedException {
+        statuses.put("UpdateRoomMetadata", 500);
+        LivekitGateway gateway = gateway(1);
+
+        Disposable ordinary = gateway.removeParticipant("lobby", "alice").subscribe(null, error -> { });
+        assertThat(blockedArrivals.tryAcquire(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+        StepVerifier.create(gateway.updateRoomMetadata("lobby", "{}"))
+                .expectError(ResponseStatusException.class)
+                .verify(TIMEOUT);
+
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+        Disposable trial = gateway.removeParticipant("lobby", "bob").subscribe(null, error -> { });
+        assertThat(blockedArrivals.tryAcquire(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+
+        ordinary.dispose();
+        StepVerifier.create(gateway.listRooms(null))
+                .expectErrorSatisfies(error -> assertThat(status(error)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .verify(TIMEOUT);
+        assertThat(hits("ListRooms")).isZero();
+
+        trial.dispose();
+        StepVerifier.create(gateway.listRooms(null))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void runsCallsConcurrentlyUpToTheBulkhead() throws InterruptedException {
+        LivekitGateway gateway = gateway(3);
+
+        List<Disposable> calls = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCURRENT_CALLS; i++) {
+            calls.add(gateway.removeParticipant("lobby", "user-" + i).subscribe(null, error -> { }));
+        }
+
+        assertThat(blockedArrivals.tryAcquire(MAX_CONCURRENT_CALLS, TIMEOUT.toMillis() / 2, TimeUnit.MILLISECONDS)).isTrue();
+        StepVerifier.create(gateway.listRooms(null))
+                .expectErrorSatisfies(error -> assertThat(status(error)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .verify(TIMEOUT);
+        calls.forEach(Disposable::dispose);
+    }
+
+    private LivekitGateway gateway(int failureThreshold) {
+        String host = "http://127.0.0.1:" + server.getAddress().getPort();
+        LivekitProp props = new LivekitProp(
+                host,
+                "api-key",
+                "api-secret-api-secret-api-secret",
+                null,
+                new LivekitProp.Gateway(TIMEOUT, MAX_CONCURRENT_CALLS, failureThreshold, OPEN_DURATION),
+                null
+        );
+        AgentConfiguration configuration = new AgentConfiguration();
+        return new LivekitGateway(
+                configuration.roomClient(props, configuration.livekitHttpClient(props)),
+                mock(AgentDispatchServiceClient.class),
+                new SimpleMeterRegistry(),
+                props
+        );
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestURI().getPath().substring("/twirp/livekit.RoomService/".length());
+        hits.computeIfAbsent(method, ignored -> new AtomicInteger()).incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        if (method.equals("RemoveParticipant") && !statuses.containsKey(method)) {
+            blockedArrivals.release();
+            try {
+                releaseBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int status = statuses.getOrDefault(method, 200);
+        byte[] body = status == 200 ? successBody(method) : ("{\"code\":\"error\",\"msg\":\"HTTP " + status + "\"}").getBytes();
+        exchange.getResponseHeaders().set("Content-Type", status == 200 ? "application/protobuf" : "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private byte[] successBody(String method) {
+        return switch (method) {
+            case "ListRooms" -> LivekitRoom.ListRoomsResponse.newBuilder()
+                    .addAllRooms(List.of(LivekitModels.Room.newBuilder().setName("lobby").build()))
+                    .build()
+                    .toByteArray();
+            case "ListParticipants" -> LivekitRoom.ListParticipantsResponse.getDefaultInstance().toByteArray();
+            default -> new byte[0];
+        };
+    }
+
+    private int hits(String method) {
+        AtomicInteger count = hits.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    private static HttpStatus status(Throwable error) {
+        assertThat(error).isInstanceOf(ResponseStatusException.class);
+        return HttpStatus.valueOf(((ResponseStatusException) error).getStatusCode().value());
+    }
+}
@@ -0,0 +1,165 @@
+package space.confa.api.service.livekit;
+
+import livekit.LivekitModels;
+import livekit.LivekitWebhook;
+import org.junit.jupiter.api.Test;
+import space.confa.api.configuration.properties.LivekitProp;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LivekitRoomRegistryTest {
+
+    private static final String ROOM = "lobby";
+
+    @Test
+    void ignoresParticipantEventsOlderThanTheLastApplied() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+
+        registry.apply(event("participant_joined", "alice", 100));
+        registry.apply(event("participant_left", "alice", 110));
+        registry.apply(event("participant_joined", "alice", 105));
+        registry.apply(event("participant_joined", "bob", 105));
+
+        assertThat(identities(registry)).containsExactly("bob");
+    }
+
+    @Test
+    void appliesParticipantEventsInOrder() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+
+        registry.apply(event("participant_joined", "alice", 100));
+        registry.apply(event("participant_left", "alice", 110));
+        registry.apply(event("participant_joined", "alice", 120));
+
+        assertThat(identities(registry)).containsExactly("alice");
+    }
+
+    @Test
+    void departureWinsOverEventsFromTheSameSecond() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+
+        registry.apply(event("participant_joined", "alice", 100));
+        registry.apply(event("participant_left", "alice", 100));
+        registry.apply(event("participant_joined", "alice", 100));
+        registry.apply(event("track_published", "alice", 100));
+
+        assertThat(identities(registry)).isEmpty();
+    }
+
+    @Test
+    void abortedConnectionsRemoveTheParticipant() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+
+        registry.apply(event("participant_joined", "alice", 100));
+        registry.apply(event("participant_joined", "bob", 100));
+        registry.apply(event("participant_connection_aborted", "alice", 110));
+
+        assertThat(identities(registry)).containsExactly("bob");
+    }
+
+    @Test
+    void trackEventsDoNotAddParticipants() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+
+        registry.apply(event("room_started", null, 100));
+        registry.apply(event("track_unpublished", "alice", 110));
+
+        assertThat(registry.room(ROOM)).isPresent();
+        assertThat(identities(registry)).isEmpty();
+    }
+
+    @Test
+    void olderEventsDoNotResurrectAFinishedRoom() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+
+        registry.apply(event("room_started", null, 100));
+        registry.apply(event("room_finished", null, 200));
+        registry.apply(event("participant_joined", "alice", 150));
+
+        assertThat(registry.room(ROOM)).isEmpty();
+
+        registry.apply(event("room_started", null, 300));
+
+        assertThat(registry.room(ROOM)).isPresent();
+    }
+
+    @Test
+    void keepsEventClocksAcrossSnapshots() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+        registry.apply(event("room_started", null, 100));
+        registry.apply(event("participant_left", "alice", 110));
+
+        long startedAt = System.nanoTime();
+        registry.replaceAll(Map.of(ROOM, LivekitRoomRegistry.RoomState.of(room(), List.of(), startedAt)), startedAt);
+        registry.apply(event("participant_joined", "alice", 105));
+
+        assertThat(identities(registry)).isEmpty();
+    }
+
+    @Test
+    void stopsServingAfterRepeatedReconcileFailures() {
+        LivekitRoomRegistry registry = registry(Duration.ofMinutes(1));
+        assertThat(registry.isReady()).isFalse();
+
+        registry.replaceAll(Map.of(), System.nanoTime());
+        assertThat(registry.isReady()).isTrue();
+
+        registry.reconcileFailed();
+        assertThat(registry.isReady()).isTrue();
+        registry.reconcileFailed();
+        assertThat(registry.isReady()).isFalse();
+
+        registry.replaceAll(Map.of(), System.nanoTime());
+        assertThat(registry.isReady()).isTrue();
+    }
+
+    @Test
+    void stopsServingOnceTheSnapshotIsStale() throws InterruptedException {
+        LivekitRoomRegistry registry = registry(Duration.ofMillis(50));
+
+        registry.replaceAll(Map.of(), System.nanoTime());
+        assertThat(registry.isReady()).isTrue();
+
+        Thread.sleep(100);
+        assertThat(registry.isReady()).isFalse();
+    }
+
+    private static LivekitRoomRegistry registry(Duration staleAfter) {
+        return new LivekitRoomRegistry(new LivekitProp(
+                null,
+                null,
+                null,
+                null,
+                null,
+                new LivekitProp.Registry(Duration.ofSeconds(30), "in-memory", 2, staleAfter)
+        ));
+    }
+
+    private static List<String> identities(LivekitRoomRegistry registry) {
+        return registry.room(ROOM)
+                .map(state -> state.participants().stream().map(LivekitModels.ParticipantInfo::getIdentity).toList())
+                .orElse(List.of());
+    }
+
+    private static LivekitWebhook.WebhookEvent event(String type, String identity, long createdAt) {
+        LivekitWebhook.WebhookEvent.Builder builder = LivekitWebhook.WebhookEvent.newBuilder()
+                .setEvent(type)
+                .setRoom(room())
+                .setCreatedAt(createdAt);
+        if (identity != null) {
+            builder.setParticipant(LivekitModels.ParticipantInfo.newBuilder()
+                    .setIdentity(identity)
+                    .setJoinedAt(createdAt)
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static LivekitModels.Room room() {
+        return LivekitModels.Room.newBuilder().setName(ROOM).build();
+    }
+}